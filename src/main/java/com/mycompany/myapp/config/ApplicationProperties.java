@@ -1,5 +1,10 @@
 package com.mycompany.myapp.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +15,850 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final QueryCache queryCache = new QueryCache();
+
+    private final Cache cache = new Cache();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Security security = new Security();
+
+    private final Server server = new Server();
+
+    private final Async async = new Async();
+
+    private final Mail mail = new Mail();
+
     // jhipster-needle-application-properties-property
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    /**
+     * Hibernate query cache for the criteria queries of the entity query services.
+     */
+    public static class QueryCache {
+
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Per-region overrides of the {@code jhipster.cache.ehcache} defaults, keyed by cache region name.
+     */
+    public static class Cache {
+
+        private final Map<String, Region> regions = new HashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Region {
+
+            private Long heapEntries;
+
+            private Long offHeapMb;
+
+            private Long timeToLiveSeconds;
+
+            private Long timeToIdleSeconds;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public Long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(Long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+
+        /**
+         * Broadcast of the cache evictions to the other nodes of the cluster.
+         */
+        public static class Invalidation {
+
+            public static final String TRANSPORT_LOCAL = "local";
+            public static final String TRANSPORT_POSTGRES = "postgres";
+
+            private String transport = TRANSPORT_LOCAL;
+
+            private String channel = "cache_invalidation";
+
+            /**
+             * Keys of a cache evicted together beyond which the whole cache is cleared, keeping each message small.
+             */
+            private int maxKeys = 100;
+
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+        }
+    }
+
+    /**
+     * Bulk endpoints of the entities.
+     */
+    public static class Bulk {
+
+        /**
+         * Number of operations processed in a transaction, with a single flush: a multiple of the JDBC batch size.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Authentication of the requests.
+     */
+    public static class Security {
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final Signing signing = new Signing();
+
+        private final Password password = new Password();
+
+        private final RefreshToken refreshToken = new RefreshToken();
+
+        private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public Signing getSigning() {
+            return signing;
+        }
+
+        public Password getPassword() {
+            return password;
+        }
+
+        public RefreshToken getRefreshToken() {
+            return refreshToken;
+        }
+
+        public TokenRevocation getTokenRevocation() {
+            return tokenRevocation;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        /**
+         * Cache of the verified JWTs, so that a token presented again is not parsed and verified again.
+         */
+        public static class TokenCache {
+
+            /**
+             * Maximum number of cached tokens, {@code 0} disables the cache.
+             */
+            private int maximumSize = 10000;
+
+            public int getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(int maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+        }
+
+        /**
+         * Signature of the issued JWTs.
+         */
+        public static class Signing {
+
+            /**
+             * {@code HS512}, with the JHipster secret, or {@code ES256}, with the keys below.
+             */
+            private String algorithm = "HS512";
+
+            /**
+             * Id of the key signing the new tokens, with the {@code ES256} algorithm.
+             */
+            private String activeKeyId;
+
+            /**
+             * Keys verifying the tokens, by their {@code kid} header. The active key also needs its private key.
+             */
+            private List<Key> keys = new ArrayList<>();
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public String getActiveKeyId() {
+                return activeKeyId;
+            }
+
+            public void setActiveKeyId(String activeKeyId) {
+                this.activeKeyId = activeKeyId;
+            }
+
+            public List<Key> getKeys() {
+                return keys;
+            }
+
+            public void setKeys(List<Key> keys) {
+                this.keys = keys;
+            }
+
+            /**
+             * An EC P-256 key, encoded in Base64 or PEM.
+             */
+            public static class Key {
+
+                private String id;
+
+                /**
+                 * X.509 SubjectPublicKeyInfo.
+                 */
+                private String publicKey;
+
+                /**
+                 * PKCS#8 private key, only for the active key.
+                 */
+                private String privateKey;
+
+                public String getId() {
+                    return id;
+                }
+
+                public void setId(String id) {
+                    this.id = id;
+                }
+
+                public String getPublicKey() {
+                    return publicKey;
+                }
+
+                public void setPublicKey(String publicKey) {
+                    this.publicKey = publicKey;
+                }
+
+                public String getPrivateKey() {
+                    return privateKey;
+                }
+
+                public void setPrivateKey(String privateKey) {
+                    this.privateKey = privateKey;
+                }
+            }
+        }
+
+        /**
+         * Hashing of the passwords, on a bounded pool of threads. The hashes stored with another algorithm, or a lower
+         * BCrypt cost, are hashed again on the next successful login of their user.
+         */
+        public static class Password {
+
+            /**
+             * {@code bcrypt} or {@code pbkdf2} (PBKDF2 with HMAC-SHA256), for the new hashes.
+             */
+            private String algorithm = "bcrypt";
+
+            /**
+             * BCrypt cost, as the log2 of its number of rounds.
+             */
+            private int bcryptStrength = 10;
+
+            /**
+             * PBKDF2 iterations.
+             */
+            private int pbkdf2Iterations = 310000;
+
+            /**
+             * Number of passwords hashed or checked at the same time.
+             */
+            private int poolSize = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Number of passwords waiting for a thread, beyond which they are rejected.
+             */
+            private int queueCapacity = 100;
+
+            /**
+             * Maximum time to hash or check a password, waiting included.
+             */
+            private Duration timeout = Duration.ofSeconds(10);
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getPbkdf2Iterations() {
+                return pbkdf2Iterations;
+            }
+
+            public void setPbkdf2Iterations(int pbkdf2Iterations) {
+                this.pbkdf2Iterations = pbkdf2Iterations;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        /**
+         * Rotating refresh tokens, exchanged for short-lived access tokens. Each refresh token is valid once: its
+         * series is revoked if it is presented again.
+         */
+        public static class RefreshToken {
+
+            /**
+             * Validity of the access tokens issued for a refresh token.
+             */
+            private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+            /**
+             * Validity of a series of refresh tokens, from the login.
+             */
+            private Duration validity = Duration.ofDays(1);
+
+            /**
+             * Validity of a series of refresh tokens, from a login with "remember me".
+             */
+            private Duration validityForRememberMe = Duration.ofDays(30);
+
+            /**
+             * Number of series revoked between two purges of the expired refresh tokens that the revocation filter is
+             * sized for.
+             */
+            private int revocationFilterExpectedInsertions = 100000;
+
+            /**
+             * Probability that the revocation filter wrongly rejects a series which is not revoked.
+             */
+            private double revocationFilterFalsePositiveProbability = 0.000001;
+
+            public Duration getAccessTokenValidity() {
+                return accessTokenValidity;
+            }
+
+            public void setAccessTokenValidity(Duration accessTokenValidity) {
+                this.accessTokenValidity = accessTokenValidity;
+            }
+
+            public Duration getValidity() {
+                return validity;
+            }
+
+            public void setValidity(Duration validity) {
+                this.validity = validity;
+            }
+
+            public Duration getValidityForRememberMe() {
+                return validityForRememberMe;
+            }
+
+            public void setValidityForRememberMe(Duration validityForRememberMe) {
+                this.validityForRememberMe = validityForRememberMe;
+            }
+
+            public int getRevocationFilterExpectedInsertions() {
+                return revocationFilterExpectedInsertions;
+            }
+
+            public void setRevocationFilterExpectedInsertions(int revocationFilterExpectedInsertions) {
+                this.revocationFilterExpectedInsertions = revocationFilterExpectedInsertions;
+            }
+
+            public double getRevocationFilterFalsePositiveProbability() {
+                return revocationFilterFalsePositiveProbability;
+            }
+
+            public void setRevocationFilterFalsePositiveProbability(double revocationFilterFalsePositiveProbability) {
+                this.revocationFilterFalsePositiveProbability = revocationFilterFalsePositiveProbability;
+            }
+        }
+
+        /**
+         * Revocation of the JWTs of a user before they expire, when the user is deactivated, deleted, or their
+         * authorities change.
+         */
+        public static class TokenRevocation {
+
+            /**
+             * Delay between two loads of the revocations recorded by the other nodes.
+             */
+            private Duration syncInterval = Duration.ofSeconds(5);
+
+            /**
+             * Number of revoked users within the validity of a token that the in-memory filter is sized for.
+             */
+            private int expectedInsertions = 10000;
+
+            /**
+             * Probability that the in-memory filter sends a user who is not revoked to the exact lookup.
+             */
+            private double falsePositiveProbability = 0.001;
+
+            public Duration getSyncInterval() {
+                return syncInterval;
+            }
+
+            public void setSyncInterval(Duration syncInterval) {
+                this.syncInterval = syncInterval;
+            }
+
+            public int getExpectedInsertions() {
+                return expectedInsertions;
+            }
+
+            public void setExpectedInsertions(int expectedInsertions) {
+                this.expectedInsertions = expectedInsertions;
+            }
+
+            public double getFalsePositiveProbability() {
+                return falsePositiveProbability;
+            }
+
+            public void setFalsePositiveProbability(double falsePositiveProbability) {
+                this.falsePositiveProbability = falsePositiveProbability;
+            }
+        }
+
+        /**
+         * Rate limits of the login, registration and password reset endpoints, by client address and by login.
+         */
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Period over which the capacities below are refilled.
+             */
+            private Duration period = Duration.ofMinutes(1);
+
+            /**
+             * Requests from a client address per period, which can all be sent in a burst.
+             */
+            private int addressCapacity = 20;
+
+            /**
+             * Requests for a login, or an email, per period.
+             */
+            private int loginCapacity = 5;
+
+            /**
+             * Addresses, and logins, tracked at the same time. Beyond them, the requests of new addresses or logins are
+             * throttled until the buckets of others are full again.
+             */
+            private int maximumKeys = 100000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getPeriod() {
+                return period;
+            }
+
+            public void setPeriod(Duration period) {
+                this.period = period;
+            }
+
+            public int getAddressCapacity() {
+                return addressCapacity;
+            }
+
+            public void setAddressCapacity(int addressCapacity) {
+                this.addressCapacity = addressCapacity;
+            }
+
+            public int getLoginCapacity() {
+                return loginCapacity;
+            }
+
+            public void setLoginCapacity(int loginCapacity) {
+                this.loginCapacity = loginCapacity;
+            }
+
+            public int getMaximumKeys() {
+                return maximumKeys;
+            }
+
+            public void setMaximumKeys(int maximumKeys) {
+                this.maximumKeys = maximumKeys;
+            }
+        }
+    }
+
+    /**
+     * Undertow server.
+     */
+    public static class Server {
+
+        private final RequestLimit requestLimit = new RequestLimit();
+
+        public RequestLimit getRequestLimit() {
+            return requestLimit;
+        }
+
+        /**
+         * Limit of the requests handled at the same time, outside of {@code /management}: the other requests wait in a
+         * queue without holding a worker thread, and are rejected with a {@code 503} once the queue is full.
+         */
+        public static class RequestLimit {
+
+            /**
+             * Requests handled at the same time, a small multiple of the size of the connection pool; 0 disables it.
+             */
+            private int maxConcurrentRequests = 0;
+
+            /**
+             * Requests waiting for one of the above to complete.
+             */
+            private int queueSize = 1000;
+
+            public int getMaxConcurrentRequests() {
+                return maxConcurrentRequests;
+            }
+
+            public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+                this.maxConcurrentRequests = maxConcurrentRequests;
+            }
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+        }
+    }
+
+    /**
+     * Thread pools of the asynchronous tasks, one per workload.
+     */
+    public static class Async {
+
+        private final Pool misc = new Pool(8, 100, RejectionPolicy.CALLER_RUNS);
+
+        private final Pool mail = new Pool(4, 500, RejectionPolicy.CALLER_RUNS);
+
+        private final Pool liquibase = new Pool(1, 1, RejectionPolicy.ABORT);
+
+        /**
+         * The {@code @Async} tasks without an executor name.
+         */
+        public Pool getMisc() {
+            return misc;
+        }
+
+        public Pool getMail() {
+            return mail;
+        }
+
+        public Pool getLiquibase() {
+            return liquibase;
+        }
+
+        public enum RejectionPolicy {
+            /**
+             * The task runs in the thread submitting it, which slows the submitters down.
+             */
+            CALLER_RUNS,
+            /**
+             * The submission fails with a {@code TaskRejectedException}.
+             */
+            ABORT,
+        }
+
+        public static class Pool {
+
+            /**
+             * Threads running the tasks, started as needed and stopped after a minute idle.
+             */
+            private int size;
+
+            /**
+             * Tasks waiting for a thread, beyond which they are rejected.
+             */
+            private int queueCapacity;
+
+            private RejectionPolicy rejectionPolicy;
+
+            public Pool() {}
+
+            Pool(int size, int queueCapacity, RejectionPolicy rejectionPolicy) {
+                this.size = size;
+                this.queueCapacity = queueCapacity;
+                this.rejectionPolicy = rejectionPolicy;
+            }
+
+            public int getSize() {
+                return size;
+            }
+
+            public void setSize(int size) {
+                this.size = size;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public RejectionPolicy getRejectionPolicy() {
+                return rejectionPolicy;
+            }
+
+            public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+                this.rejectionPolicy = rejectionPolicy;
+            }
+        }
+    }
+
+    /**
+     * Outgoing emails.
+     */
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        /**
+         * Sending of the emails waiting in the {@code outbox_mail} table, in batches over one connection to the mail
+         * server. A failed email is tried again after a delay doubled at each attempt, until it is abandoned.
+         */
+        public static class Outbox {
+
+            /**
+             * Delay between two dispatches of the due emails, which are also dispatched once their transaction commits.
+             */
+            private Duration interval = Duration.ofSeconds(10);
+
+            /**
+             * Emails claimed and sent over one connection at a time.
+             */
+            private int batchSize = 50;
+
+            /**
+             * Time a batch is claimed for while it is sent, after which another dispatch may send its emails again.
+             */
+            private Duration lease = Duration.ofMinutes(5);
+
+            /**
+             * Attempts after which an email is abandoned.
+             */
+            private int maxAttempts = 8;
+
+            /**
+             * Delay before the second attempt.
+             */
+            private Duration initialBackoff = Duration.ofSeconds(30);
+
+            /**
+             * Longest delay between two attempts.
+             */
+            private Duration maxBackoff = Duration.ofHours(1);
+
+            /**
+             * Time an abandoned email is kept from its creation, after which it is purged.
+             */
+            private Duration abandonedRetention = Duration.ofDays(30);
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getLease() {
+                return lease;
+            }
+
+            public void setLease(Duration lease) {
+                this.lease = lease;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+
+            public Duration getAbandonedRetention() {
+                return abandonedRetention;
+            }
+
+            public void setAbandonedRetention(Duration abandonedRetention) {
+                this.abandonedRetention = abandonedRetention;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
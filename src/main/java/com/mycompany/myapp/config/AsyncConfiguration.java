@@ -1,48 +1,66 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.service.MailOutboxDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
-import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
+/**
+ * Runs the asynchronous tasks on a bounded pool per workload, configured by {@code application.async}: the emails, the
+ * Liquibase migration at startup, and the other {@code @Async} tasks.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
 @Profile("!testdev & !testprod")
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    public static final String LIQUIBASE_EXECUTOR = "liquibaseExecutor";
+
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
-    private final TaskExecutionProperties taskExecutionProperties;
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
-        this.taskExecutionProperties = taskExecutionProperties;
+    public AsyncConfiguration(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
         log.debug("Creating Async Task Executor");
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
-        executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
-        executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
-        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
-        return new ExceptionHandlingAsyncTaskExecutor(executor);
+        return executor("misc", applicationProperties.getAsync().getMisc());
+    }
+
+    @Bean(name = MailOutboxDispatcher.EXECUTOR)
+    public Executor mailExecutor() {
+        return executor("mail", applicationProperties.getAsync().getMail());
+    }
+
+    @Bean(name = LIQUIBASE_EXECUTOR)
+    public Executor liquibaseExecutor() {
+        return executor("liquibase", applicationProperties.getAsync().getLiquibase());
     }
 
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
+
+    private Executor executor(String name, ApplicationProperties.Async.Pool pool) {
+        return new ExceptionHandlingAsyncTaskExecutor(new MonitoredThreadPoolTaskExecutor(name, pool, meterRegistry));
+    }
 }
@@ -2,8 +2,15 @@ package com.mycompany.myapp.config;
 
 import java.time.Duration;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.copy.SerializingCopier;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -21,23 +28,27 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties applicationProperties;
+    private final CacheRegionSizes cacheRegionSizes = new CacheRegionSizes();
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.applicationProperties = applicationProperties;
+    }
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    @Bean
+    public CacheRegionSizes cacheRegionSizes() {
+        return cacheRegionSizes;
     }
 
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, cacheRegionSizes.regionFactory());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, applicationProperties.getQueryCache().isEnabled());
+        };
     }
 
     @Bean
@@ -45,22 +56,92 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.mycompany.myapp.repository.UserRepository.UNKNOWN_LOGINS_CACHE);
+            createCache(cm, com.mycompany.myapp.repository.UserRepository.UNKNOWN_EMAILS_CACHE);
             createCache(cm, com.mycompany.myapp.domain.User.class.getName());
             createCache(cm, com.mycompany.myapp.domain.Authority.class.getName());
             createCache(cm, com.mycompany.myapp.domain.User.class.getName() + ".authorities");
             createCache(cm, com.mycompany.myapp.domain.Author.class.getName());
             createCache(cm, com.mycompany.myapp.domain.Book.class.getName());
+            createCache(cm, com.mycompany.myapp.service.ApproximateCountService.COUNTS_BY_CRITERIA_CACHE);
+            // the cached DTOs are mutable: each read gets its own copy
+            createCache(cm, com.mycompany.myapp.service.BookService.BOOKS_BY_ID_CACHE, true, true);
+            createCache(cm, com.mycompany.myapp.service.AuthorService.AUTHORS_BY_ID_CACHE, true, true);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            createCache(cm, com.mycompany.myapp.repository.AuthorRepository.QUERY_CACHE_REGION);
+            createCache(cm, com.mycompany.myapp.repository.BookRepository.QUERY_CACHE_REGION);
+            // The query cache relies on the last update timestamp of each table: those entries must never expire
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, false, false);
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, true, false);
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, boolean expiring, boolean byValue) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
+            cacheRegionSizes.reset(cacheName);
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, regionConfiguration(cacheName, expiring, byValue));
+        }
+        // hits, misses and evictions are exported by the Spring Boot cache metrics from the JCache statistics
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Build the configuration of a cache region from its {@code application.cache.regions} entry, falling back to the
+     * {@code jhipster.cache.ehcache} defaults. The values of a region stored by value are copied when they are put and
+     * read, instead of being shared with the callers.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> regionConfiguration(
+        String cacheName,
+        boolean expiring,
+        boolean byValue
+    ) {
+        ApplicationProperties.Cache.Region region = applicationProperties
+            .getCache()
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES);
+        if (region.getOffHeapMb() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiring ? expiryPolicy(region) : ExpiryPolicyBuilder.noExpiration())
+            .withService(cacheRegionSizes.listenerFor(cacheName));
+        if (region.getOffHeapMb() != null || byValue) {
+            // off-heap and copied entries are serialized, Ehcache has no default serializer for Object keys and values
+            ClassLoader classLoader = CacheConfiguration.class.getClassLoader();
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<Object>(classLoader))
+                    .withValueSerializer(new PlainJavaSerializer<Object>(classLoader));
+        }
+        if (byValue) {
+            builder = builder.withValueCopier(SerializingCopier.<Object>asCopierClass());
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    private ExpiryPolicy<Object, Object> expiryPolicy(ApplicationProperties.Cache.Region region) {
+        Duration timeToLive = Duration.ofSeconds(
+            region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds()
+        );
+        if (region.getTimeToIdleSeconds() == null) {
+            return ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive);
+        }
+        Duration timeToIdle = Duration.ofSeconds(region.getTimeToIdleSeconds());
+        if (region.getTimeToLiveSeconds() == null) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(timeToIdle);
         }
+        // Ehcache has no combined policy: once read, an entry expires time-to-idle after its last read
+        return ExpiryPolicyBuilder.expiry().create(timeToLive).update(timeToLive).access(timeToIdle).build();
     }
 
     @Autowired(required = false)
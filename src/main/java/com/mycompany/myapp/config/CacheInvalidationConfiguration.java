@@ -0,0 +1,157 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.service.CacheInvalidationService;
+import com.mycompany.myapp.service.CacheInvalidationTransport;
+import com.mycompany.myapp.service.LocalCacheInvalidationTransport;
+import com.mycompany.myapp.service.PostgresCacheInvalidationTransport;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Broadcast of the cache evictions between the nodes of the cluster, see {@link CacheInvalidationService}.
+ * <p>
+ * The transport is selected with {@code application.cache.invalidation.transport}.
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    private final ApplicationProperties.Cache.Invalidation invalidation;
+
+    public CacheInvalidationConfiguration(ApplicationProperties applicationProperties) {
+        this.invalidation = applicationProperties.getCache().getInvalidation();
+    }
+
+    @Bean
+    public CacheInvalidationTransport cacheInvalidationTransport(
+        DataSourceProperties dataSourceProperties,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        switch (invalidation.getTransport()) {
+            case ApplicationProperties.Cache.Invalidation.TRANSPORT_LOCAL:
+                return new LocalCacheInvalidationTransport();
+            case ApplicationProperties.Cache.Invalidation.TRANSPORT_POSTGRES:
+                // the listening connection is never returned: it is opened outside of the pool
+                return new PostgresCacheInvalidationTransport(
+                    dataSourceProperties.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build(),
+                    jdbcTemplate,
+                    new TransactionTemplate(transactionManager),
+                    invalidation.getChannel()
+                );
+            default:
+                throw new IllegalStateException("Unknown cache invalidation transport: " + invalidation.getTransport());
+        }
+    }
+
+    /**
+     * Publish the changes of the cached entities: updates and deletes make the entity regions of the other nodes stale,
+     * and any change makes their query cache stale. The identifiers changed by a transaction are collected while it is
+     * flushed, and published once per entity name after its last flush, before its commit, so they are delivered with
+     * it.
+     */
+    @Bean
+    public SmartInitializingSingleton entityCacheInvalidationRegistrar(
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        return () -> {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            EntityCacheInvalidationListener listener = new EntityCacheInvalidationListener(
+                cacheInvalidationService,
+                sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()
+            );
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        };
+    }
+
+    static class EntityCacheInvalidationListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private final CacheInvalidationService cacheInvalidationService;
+
+        private final boolean queryCacheEnabled;
+
+        private final Map<SharedSessionContractImplementor, Map<String, Set<Serializable>>> pending = new ConcurrentHashMap<>();
+
+        EntityCacheInvalidationListener(CacheInvalidationService cacheInvalidationService, boolean queryCacheEnabled) {
+            this.cacheInvalidationService = cacheInvalidationService;
+            this.queryCacheEnabled = queryCacheEnabled;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (queryCacheEnabled) {
+                evictOnPeers(event.getSession(), event.getPersister(), event.getId());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (queryCacheEnabled || event.getPersister().canWriteToCache()) {
+                evictOnPeers(event.getSession(), event.getPersister(), event.getId());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (queryCacheEnabled || event.getPersister().canWriteToCache()) {
+                evictOnPeers(event.getSession(), event.getPersister(), event.getId());
+            }
+        }
+
+        private void evictOnPeers(EventSource session, EntityPersister persister, Serializable id) {
+            pending
+                .computeIfAbsent(session, key -> register(session))
+                .computeIfAbsent(persister.getEntityName(), name -> new LinkedHashSet<>())
+                .add(id);
+        }
+
+        private Map<String, Set<Serializable>> register(EventSource session) {
+            // the session flushes before running these processes, so the last changes are collected too
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::publish);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> pending.remove(completed));
+            return new LinkedHashMap<>();
+        }
+
+        private void publish(SharedSessionContractImplementor session) {
+            Map<String, Set<Serializable>> ids = pending.remove(session);
+            if (ids != null) {
+                ids.forEach(cacheInvalidationService::evictEntitiesOnPeers);
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
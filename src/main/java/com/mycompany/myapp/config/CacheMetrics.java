@@ -0,0 +1,99 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.repository.AuthorRepository;
+import com.mycompany.myapp.repository.BookRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the cache metrics which are not covered by the Spring Boot cache metrics: the number of entries of each
+ * cache region and, when the Hibernate query cache is enabled, the hit, miss and put counts of the entity query cache
+ * regions.
+ * <p>
+ * Meters are bound once all singletons are created, as the entity manager factory must not be created while the
+ * meter registry is. Hibernate statistics are switched on at runtime rather than with
+ * {@code hibernate.generate_statistics}, which would also log metrics at the end of every session.
+ */
+@Component
+public class CacheMetrics implements SmartInitializingSingleton {
+
+    public static final String CACHE_SIZE_METER_NAME = "cache.region.size";
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String QUERY_CACHE_REQUESTS_METER_NAME = "hibernate.cache.query.requests";
+    public static final String QUERY_CACHE_PUTS_METER_NAME = "hibernate.cache.query.puts";
+    public static final String REGION_DIMENSION = "region";
+    public static final String RESULT_DIMENSION = "result";
+
+    private static final List<String> QUERY_REGIONS = List.of(BookRepository.QUERY_CACHE_REGION, AuthorRepository.QUERY_CACHE_REGION);
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheRegionSizes cacheRegionSizes;
+
+    public CacheMetrics(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties,
+        EntityManagerFactory entityManagerFactory,
+        CacheRegionSizes cacheRegionSizes
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.applicationProperties = applicationProperties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheRegionSizes = cacheRegionSizes;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String cacheName : cacheRegionSizes.getCacheNames()) {
+            Gauge
+                .builder(CACHE_SIZE_METER_NAME, cacheRegionSizes, sizes -> sizes.getSize(cacheName))
+                .description("The number of entries in the cache region")
+                .tags(CACHE_DIMENSION, cacheName)
+                .register(meterRegistry);
+        }
+        if (applicationProperties.getQueryCache().isEnabled()) {
+            bindQueryCacheMetrics();
+        }
+    }
+
+    private void bindQueryCacheMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        for (String region : QUERY_REGIONS) {
+            FunctionCounter
+                .builder(QUERY_CACHE_REQUESTS_METER_NAME, statistics, stats -> count(stats, region, CacheRegionStatistics::getHitCount))
+                .description("The number of query cache lookups which found the query results")
+                .tags(REGION_DIMENSION, region, RESULT_DIMENSION, "hit")
+                .register(meterRegistry);
+            FunctionCounter
+                .builder(QUERY_CACHE_REQUESTS_METER_NAME, statistics, stats -> count(stats, region, CacheRegionStatistics::getMissCount))
+                .description("The number of query cache lookups which had to run the query")
+                .tags(REGION_DIMENSION, region, RESULT_DIMENSION, "miss")
+                .register(meterRegistry);
+            FunctionCounter
+                .builder(QUERY_CACHE_PUTS_METER_NAME, statistics, stats -> count(stats, region, CacheRegionStatistics::getPutCount))
+                .description("The number of query results put in the query cache")
+                .tags(REGION_DIMENSION, region)
+                .register(meterRegistry);
+        }
+    }
+
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+        // the region only exists once a query has been cached in it
+        CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+        return regionStatistics == null ? 0 : counter.applyAsLong(regionStatistics);
+    }
+}
@@ -0,0 +1,157 @@
+package com.mycompany.myapp.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.ehcache.config.builders.CacheEventListenerConfigurationBuilder;
+import org.ehcache.event.CacheEventListener;
+import org.ehcache.event.EventType;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Number of entries of each cache region, maintained from the Ehcache entry events.
+ * <p>
+ * JCache statistics do not expose the size of a cache. A {@code clear()} does not raise any event: the count of a
+ * region is reset when {@link CacheConfiguration} clears it, and when Hibernate evicts the whole region through the
+ * {@link #regionFactory()}. The other clears, by Spring, remove the entries one by one.
+ */
+public class CacheRegionSizes {
+
+    private final Map<String, AtomicLong> sizes = new ConcurrentHashMap<>();
+
+    CacheEventListenerConfigurationBuilder listenerFor(String cacheName) {
+        AtomicLong size = sizes.computeIfAbsent(cacheName, name -> new AtomicLong());
+        CacheEventListener<Object, Object> listener = event -> {
+            if (event.getType() == EventType.CREATED) {
+                size.incrementAndGet();
+            } else {
+                size.decrementAndGet();
+            }
+        };
+        return CacheEventListenerConfigurationBuilder
+            .newEventListenerConfiguration(listener, EventType.CREATED, EventType.REMOVED, EventType.EXPIRED, EventType.EVICTED)
+            .unordered()
+            .synchronous();
+    }
+
+    /**
+     * @return the JCache region factory of Hibernate, resetting the count of a region when it is evicted.
+     */
+    RegionFactory regionFactory() {
+        return new JCacheRegionFactory() {
+            @Override
+            protected DomainDataStorageAccess createDomainDataStorageAccess(
+                DomainDataRegionConfig regionConfig,
+                DomainDataRegionBuildingContext buildingContext
+            ) {
+                return storageAccess(regionConfig.getRegionName(), super.createDomainDataStorageAccess(regionConfig, buildingContext));
+            }
+
+            @Override
+            protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+                return storageAccess(
+                    regionName,
+                    (DomainDataStorageAccess) super.createQueryResultsRegionStorageAccess(regionName, sessionFactory)
+                );
+            }
+
+            @Override
+            protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+                return storageAccess(
+                    regionName,
+                    (DomainDataStorageAccess) super.createTimestampsRegionStorageAccess(regionName, sessionFactory)
+                );
+            }
+        };
+    }
+
+    DomainDataStorageAccess storageAccess(String cacheName, DomainDataStorageAccess storageAccess) {
+        return new ResettingStorageAccess(cacheName, storageAccess);
+    }
+
+    void reset(String cacheName) {
+        AtomicLong size = sizes.get(cacheName);
+        if (size != null) {
+            size.set(0);
+        }
+    }
+
+    public Set<String> getCacheNames() {
+        return sizes.keySet();
+    }
+
+    public long getSize(String cacheName) {
+        AtomicLong size = sizes.get(cacheName);
+        return size == null ? 0 : Math.max(0, size.get());
+    }
+
+    /**
+     * Storage of a Hibernate region, resetting its count once it is cleared.
+     */
+    private final class ResettingStorageAccess implements DomainDataStorageAccess {
+
+        private final String cacheName;
+
+        private final DomainDataStorageAccess delegate;
+
+        private ResettingStorageAccess(String cacheName, DomainDataStorageAccess delegate) {
+            this.cacheName = cacheName;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return delegate.getFromCache(key, session);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            delegate.putIntoCache(key, value, session);
+        }
+
+        @Override
+        public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+            delegate.putFromLoad(key, value, session);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+            reset(cacheName);
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+            reset(cacheName);
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded thread pool of a workload, monitored under its name with the meters of Micrometer's
+ * {@link ExecutorServiceMetrics}: {@code executor.queued} and {@code executor.active} among others, the
+ * {@code executor.idle} and {@code executor} timers of the time the tasks waited in the queue and ran, and
+ * {@code executor.rejected}, the tasks rejected because the queue was full, whether they then ran in the caller thread
+ * or failed.
+ */
+public class MonitoredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    private final transient MeterRegistry meterRegistry;
+
+    private final transient Timer waitTimer;
+
+    private final transient Timer runTimer;
+
+    private final transient Counter rejectedCounter;
+
+    public MonitoredThreadPoolTaskExecutor(String name, ApplicationProperties.Async.Pool pool, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        Tags tags = Tags.of("name", name);
+        this.waitTimer = Timer.builder("executor.idle").tags(tags).description("Time waited in the queue").register(meterRegistry);
+        this.runTimer = Timer.builder("executor").tags(tags).description("Time run").register(meterRegistry);
+        this.rejectedCounter =
+            Counter.builder("executor.rejected").tags(tags).description("Tasks rejected as the queue was full").register(meterRegistry);
+        // the threads are started before the tasks are queued, and stopped once idle
+        setCorePoolSize(pool.getSize());
+        setMaxPoolSize(pool.getSize());
+        setAllowCoreThreadTimeOut(true);
+        setQueueCapacity(pool.getQueueCapacity());
+        setThreadNamePrefix(name + "-");
+        setRejectedExecutionHandler(rejectionHandler(pool.getRejectionPolicy()));
+        setTaskDecorator(this::timed);
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    private Runnable timed(Runnable task) {
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private RejectedExecutionHandler rejectionHandler(ApplicationProperties.Async.RejectionPolicy policy) {
+        RejectedExecutionHandler handler = policy == ApplicationProperties.Async.RejectionPolicy.CALLER_RUNS
+            ? new ThreadPoolExecutor.CallerRunsPolicy()
+            : new ThreadPoolExecutor.AbortPolicy();
+        return (task, executor) -> {
+            rejectedCounter.increment();
+            handler.rejectedExecution(task, executor);
+        };
+    }
+}
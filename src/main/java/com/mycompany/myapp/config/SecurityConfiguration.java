@@ -1,7 +1,10 @@
 package com.mycompany.myapp.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.security.*;
 import com.mycompany.myapp.security.jwt.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -10,7 +13,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
@@ -23,10 +28,20 @@ import tech.jhipster.config.JHipsterProperties;
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private static final String PBKDF2_ID = "pbkdf2";
+
+    private static final int PBKDF2_SALT_LENGTH = 16;
+
+    private static final int PBKDF2_HASH_WIDTH = 256;
+
     private final JHipsterProperties jHipsterProperties;
 
     private final TokenProvider tokenProvider;
 
+    private final ApplicationProperties applicationProperties;
+
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
@@ -34,21 +49,42 @@ public class SecurityConfiguration {
         TokenProvider tokenProvider,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
         SecurityProblemSupport problemSupport
     ) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
+    /**
+     * Encode the new passwords with the configured algorithm, prefixed by its id, and match the stored hashes with the
+     * algorithm of their prefix, on a bounded pool of threads. The hashes stored without a prefix are BCrypt hashes.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.Password password = applicationProperties.getSecurity().getPassword();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(password.getBcryptStrength());
+        Pbkdf2PasswordEncoder pbkdf2 = new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, password.getPbkdf2Iterations(), PBKDF2_HASH_WIDTH);
+        pbkdf2.setAlgorithm(Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(
+            password.getAlgorithm(),
+            Map.of(BCRYPT_ID, bcrypt, PBKDF2_ID, pbkdf2)
+        );
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(
+            passwordEncoder,
+            password.getPoolSize(),
+            password.getQueueCapacity(),
+            password.getTimeout(),
+            meterRegistry
+        );
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ObjectMapper objectMapper, MeterRegistry meterRegistry) throws Exception {
         // @formatter:off
         http
             .csrf()
@@ -71,6 +107,7 @@ public class SecurityConfiguration {
             .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
         .and()
+            // the JWTFilter does not authenticate the requests for the PublicRoutes: keep them permitted below
             .authorizeRequests()
             .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
             .antMatchers("/app/**/*.{js,html}").permitAll()
@@ -80,6 +117,8 @@ public class SecurityConfiguration {
             .antMatchers("/test/**").permitAll()
             .antMatchers("/h2-console/**").permitAll()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
+            .antMatchers("/api/authenticate/revoke").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -90,13 +129,21 @@ public class SecurityConfiguration {
             .antMatchers("/management/health/**").permitAll()
             .antMatchers("/management/info").permitAll()
             .antMatchers("/management/prometheus").permitAll()
+            .antMatchers("/management/jwks").permitAll()
             .antMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
         .and()
             .httpBasic()
         .and()
             .apply(securityConfigurerAdapter());
-        return http.build();
         // @formatter:on
+        if (applicationProperties.getSecurity().getRateLimit().isEnabled()) {
+            // added after the CORS filter, at the same position, so that the browser can read the throttled responses
+            http.addFilterBefore(
+                new AuthenticationRateLimitFilter(applicationProperties.getSecurity().getRateLimit(), objectMapper, meterRegistry),
+                UsernamePasswordAuthenticationFilter.class
+            );
+        }
+        return http.build();
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
@@ -0,0 +1,74 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.RequestLimit;
+import io.undertow.server.handlers.RequestLimitingHandler;
+import io.undertow.util.StatusCodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounds the number of requests handled by the Undertow worker threads at the same time, when
+ * {@code application.server.request-limit.max-concurrent-requests} is set, as done by the {@code bounded} profile.
+ * <p>
+ * The requests beyond the limit wait in the queue of the I/O thread, and are rejected with a {@code 503} once it is
+ * full; they are counted by the {@code server.requests.rejected} meter. The {@code /management} requests are not
+ * limited, so that the probes and the Prometheus scrapes still get through when the application is saturated.
+ */
+@Configuration
+public class UndertowConfiguration {
+
+    public static final String REJECTED_METER_NAME = "server.requests.rejected";
+
+    private static final String MANAGEMENT_PREFIX = "/management/";
+
+    private final Logger log = LoggerFactory.getLogger(UndertowConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> requestLimitCustomizer(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Server.RequestLimit properties = applicationProperties.getServer().getRequestLimit();
+        return factory -> {
+            if (properties.getMaxConcurrentRequests() <= 0) {
+                return;
+            }
+            log.info(
+                "Limiting the requests to {} at the same time, with {} more queued",
+                properties.getMaxConcurrentRequests(),
+                properties.getQueueSize()
+            );
+            Counter rejected = Counter
+                .builder(REJECTED_METER_NAME)
+                .description("Indicates the requests rejected because too many were being handled already.")
+                .register(meterRegistry);
+            factory.addDeploymentInfoCustomizers(deploymentInfo ->
+                deploymentInfo.addInitialHandlerChainWrapper(next -> limit(next, properties, rejected))
+            );
+        };
+    }
+
+    static HttpHandler limit(HttpHandler next, ApplicationProperties.Server.RequestLimit properties, Counter rejected) {
+        RequestLimit requestLimit = new RequestLimit(properties.getMaxConcurrentRequests(), properties.getQueueSize());
+        requestLimit.setFailureHandler(exchange -> {
+            rejected.increment();
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+            exchange.endExchange();
+        });
+        HttpHandler limited = new RequestLimitingHandler(requestLimit, next);
+        return exchange -> {
+            if (exchange.getRelativePath().startsWith(MANAGEMENT_PREFIX)) {
+                next.handleRequest(exchange);
+            } else {
+                limited.handleRequest(exchange);
+            }
+        };
+    }
+}
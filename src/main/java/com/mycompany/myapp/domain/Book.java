@@ -24,6 +24,10 @@ public class Book implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @Column(name = "title")
     private String title;
 
@@ -54,6 +58,19 @@ public class Book implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Book version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return this.title;
     }
@@ -143,6 +160,7 @@ public class Book implements Serializable {
     public String toString() {
         return "Book{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", publicationDate='" + getPublicationDate() + "'" +
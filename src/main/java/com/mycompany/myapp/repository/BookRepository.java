@@ -1,10 +1,16 @@
 package com.mycompany.myapp.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 import com.mycompany.myapp.domain.Book;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,6 +20,25 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+    /**
+     * Query cache region of the criteria queries, only used when the Hibernate query cache is enabled.
+     */
+    String QUERY_CACHE_REGION = "bookQueries";
+
+    @Override
+    @QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+
+    @Override
+    @QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+    long count(Specification<Book> spec);
+
+    @Query("select book.version from Book book where book.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select book.id from Book book where book.author.id in :authorIds")
+    List<Long> findIdsByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds);
+
     default Optional<Book> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -0,0 +1,41 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link OutboxMail} entity.
+ */
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+    /**
+     * Lock the emails due to be sent, oldest first, skipping those locked by another node where the database allows it,
+     * for the time to claim them.
+     *
+     * @param now the current time.
+     * @param pageable the number of emails to lock.
+     * @return the locked emails.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select outboxMail from OutboxMail outboxMail where outboxMail.nextAttemptAt <= :now" +
+        " order by outboxMail.nextAttemptAt, outboxMail.id"
+    )
+    List<OutboxMail> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxMail outboxMail where outboxMail.nextAttemptAt is null and outboxMail.createdAt < :createdBefore")
+    int deleteAbandonedCreatedBefore(@Param("createdBefore") Instant createdBefore);
+
+    long countByNextAttemptAtIsNotNull();
+
+    long countByNextAttemptAtIsNull();
+}
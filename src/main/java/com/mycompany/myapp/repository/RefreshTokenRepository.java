@@ -0,0 +1,45 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.RefreshToken;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = { "user", "user.authorities" })
+    Optional<RefreshToken> findOneWithUserBySeries(String series);
+
+    /**
+     * Replace the token of a series, if it is still the expected one.
+     *
+     * @return the number of updated series: {@code 0} if the token was replaced concurrently.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update RefreshToken refreshToken set refreshToken.tokenHash = :newTokenHash " +
+        "where refreshToken.id = :id and refreshToken.tokenHash = :tokenHash"
+    )
+    int updateTokenHash(@Param("id") Long id, @Param("tokenHash") String tokenHash, @Param("newTokenHash") String newTokenHash);
+
+    @Query("select refreshToken.series from RefreshToken refreshToken where refreshToken.user.id = :userId")
+    List<String> findSeriesByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.series = :series")
+    int deleteBySeries(@Param("series") String series);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
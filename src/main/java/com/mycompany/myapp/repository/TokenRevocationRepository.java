@@ -0,0 +1,22 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.TokenRevocation;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link TokenRevocation} entity.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findAllByRevokedAtAfter(Instant revokedAt);
+
+    List<TokenRevocation> findAllByExpiresAtAfter(Instant expiresAt);
+
+    @Modifying
+    @Query("delete from TokenRevocation tokenRevocation where tokenRevocation.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,18 +19,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    String UNKNOWN_LOGINS_CACHE = "unknownLogins";
+
+    String UNKNOWN_EMAILS_CACHE = "unknownEmails";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Find a user with their authorities. Unknown logins are cached apart, so that the lookups of the logins tried by
+     * credential stuffing neither query the database again nor evict the cached users.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
+    @Caching(
+        cacheable = {
+            @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, unless = "#result == null"),
+            @Cacheable(cacheNames = UNKNOWN_LOGINS_CACHE, unless = "#result != null"),
+        }
+    )
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Find a user with their authorities, caching unknown emails apart as {@link #findOneWithAuthoritiesByLogin(String)}
+     * does. Emails are stored in lower case: pass the email in lower case, the key evicted when a user is saved.
+     */
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    @Caching(
+        cacheable = {
+            @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = "#result == null"),
+            @Cacheable(cacheNames = UNKNOWN_EMAILS_CACHE, unless = "#result != null"),
+        }
+    )
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
@@ -0,0 +1,278 @@
+package com.mycompany.myapp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Throttles the public endpoints which check a password or send an email, by client address and by login, with a
+ * {@link TokenBucketRateLimiter} each, and the refresh of the access tokens, which looks its token up and rotates it,
+ * by client address only. A throttled request gets a {@code 429 (Too Many Requests)} with a
+ * {@code Retry-After} header, before reaching the password encoder or the mail server.
+ * <p>
+ * The login is read from the start of the request body, which is then replayed to the controller, for blocking and
+ * asynchronous reads. The throttled requests are counted by the {@code security.rate-limit.throttled} meter, tagged
+ * by the limit they hit.
+ */
+public class AuthenticationRateLimitFilter extends OncePerRequestFilter {
+
+    public static final String THROTTLED_METER_NAME = "security.rate-limit.throttled";
+    public static final String KEYS_METER_NAME = "security.rate-limit.keys";
+
+    private static final String PROBLEM_CONTENT_TYPE = "application/problem+json";
+
+    /**
+     * Logins are short: a larger body is passed through with only the address limit.
+     */
+    private static final int MAXIMUM_BODY_READ = 4096;
+
+    private final Logger log = LoggerFactory.getLogger(AuthenticationRateLimitFilter.class);
+
+    /**
+     * The throttled endpoints, with the JSON field holding the login, or {@code null} if it is the whole body.
+     */
+    private final Map<RequestMatcher, String> endpoints = new LinkedHashMap<>();
+
+    /**
+     * The throttled endpoints without a login, by client address only.
+     */
+    private final List<RequestMatcher> addressEndpoints = List.of(
+        new AntPathRequestMatcher("/api/authenticate/refresh", HttpMethod.POST.name())
+    );
+
+    private final TokenBucketRateLimiter addressLimiter;
+
+    private final TokenBucketRateLimiter loginLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter addressThrottledCounter;
+
+    private final Counter loginThrottledCounter;
+
+    public AuthenticationRateLimitFilter(
+        ApplicationProperties.Security.RateLimit rateLimit,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
+        endpoints.put(new AntPathRequestMatcher("/api/authenticate", HttpMethod.POST.name()), "username");
+        endpoints.put(new AntPathRequestMatcher("/api/register", HttpMethod.POST.name()), "login");
+        endpoints.put(new AntPathRequestMatcher("/api/account/reset-password/init", HttpMethod.POST.name()), null);
+        this.addressLimiter = new TokenBucketRateLimiter(rateLimit.getAddressCapacity(), rateLimit.getPeriod(), rateLimit.getMaximumKeys());
+        this.loginLimiter = new TokenBucketRateLimiter(rateLimit.getLoginCapacity(), rateLimit.getPeriod(), rateLimit.getMaximumKeys());
+        this.objectMapper = objectMapper;
+        this.addressThrottledCounter = throttledCounterBuilder("address").register(meterRegistry);
+        this.loginThrottledCounter = throttledCounterBuilder("login").register(meterRegistry);
+        Gauge.builder(KEYS_METER_NAME, addressLimiter, TokenBucketRateLimiter::size).tag("limit", "address").register(meterRegistry);
+        Gauge.builder(KEYS_METER_NAME, loginLimiter, TokenBucketRateLimiter::size).tag("limit", "login").register(meterRegistry);
+    }
+
+    private static Counter.Builder throttledCounterBuilder(String limit) {
+        return Counter
+            .builder(THROTTLED_METER_NAME)
+            .description("Indicates the authentication requests rejected by the rate limits.")
+            .tag("limit", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return (
+            endpoints.keySet().stream().noneMatch(matcher -> matcher.matches(request)) &&
+            addressEndpoints.stream().noneMatch(matcher -> matcher.matches(request))
+        );
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long wait = addressLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            addressThrottledCounter.increment();
+            log.debug("Throttled {} {} from {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            reject(response, wait);
+            return;
+        }
+        if (addressEndpoints.stream().anyMatch(matcher -> matcher.matches(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        byte[] head = request.getInputStream().readNBytes(MAXIMUM_BODY_READ + 1);
+        HttpServletRequest replayed = new ReplayedRequest(request, head);
+        String login = head.length > MAXIMUM_BODY_READ ? null : readLogin(request, head);
+        if (login != null) {
+            wait = loginLimiter.tryAcquire(login);
+            if (wait > 0) {
+                loginThrottledCounter.increment();
+                log.debug("Throttled {} {} for {}", request.getMethod(), request.getRequestURI(), login);
+                reject(response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(replayed, response);
+    }
+
+    private String readLogin(HttpServletRequest request, byte[] body) {
+        String field = endpoints
+            .entrySet()
+            .stream()
+            .filter(endpoint -> endpoint.getKey().matches(request))
+            .findFirst()
+            .map(Map.Entry::getValue)
+            .orElse(null);
+        String login;
+        if (field == null) {
+            login = new String(body, StandardCharsets.UTF_8);
+        } else {
+            try {
+                JsonNode value = objectMapper.readTree(body).path(field);
+                login = value.isTextual() ? value.asText() : null;
+            } catch (IOException e) {
+                // left to the controller to reject
+                return null;
+            }
+        }
+        if (login == null || login.isBlank()) {
+            return null;
+        }
+        return login.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(PROBLEM_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("title", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        problem.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        problem.put("message", "error.http.429");
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    /**
+     * The request, with the start of its body which was already read put back in front of the rest.
+     */
+    private static final class ReplayedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+
+        private ServletInputStream inputStream;
+
+        private ReplayedRequest(HttpServletRequest request, byte[] head) {
+            super(request);
+            this.head = head;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new ReplayedInputStream(head, super.getInputStream(), head.length <= MAXIMUM_BODY_READ);
+            }
+            return inputStream;
+        }
+    }
+
+    /**
+     * The start of a body read from a stream, followed by the rest of that stream.
+     * <p>
+     * An asynchronous read of a body which was read whole is served at once: the listener is told that the data is
+     * available then that it was all read, on the thread setting it. The listener of a larger body is set on the stream
+     * of the request, which calls it as the rest of the body arrives, the start of the body being readable first.
+     */
+    private static final class ReplayedInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream head;
+
+        private final ServletInputStream rest;
+
+        private final boolean complete;
+
+        private ReplayedInputStream(byte[] head, ServletInputStream rest, boolean complete) {
+            this.head = new ByteArrayInputStream(head);
+            this.rest = rest;
+            this.complete = complete;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = head.read();
+            if (read >= 0 || complete) {
+                return read;
+            }
+            return rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (head.available() > 0 || complete) {
+                return head.read(buffer, offset, length);
+            }
+            return rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return head.available() == 0 && (complete || rest.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return head.available() > 0 || complete || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (!complete) {
+                rest.setReadListener(readListener);
+                return;
+            }
+            try {
+                if (head.available() > 0) {
+                    readListener.onDataAvailable();
+                }
+                readListener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
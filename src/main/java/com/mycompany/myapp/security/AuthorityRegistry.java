@@ -0,0 +1,136 @@
+package com.mycompany.myapp.security;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the canonical {@link GrantedAuthority} instances, shared by all the authentications.
+ * <p>
+ * The authorities of {@link AuthoritiesConstants} are registered up front. Other authorities are registered the first
+ * time they are seen, up to {@link #MAXIMUM_SIZE} of them: the authorities past that limit get a new instance each time.
+ */
+public final class AuthorityRegistry {
+
+    static final int MAXIMUM_SIZE = 256;
+
+    private static final char SEPARATOR = ',';
+
+    private static final GrantedAuthority[] CONSTANTS = {
+        new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+        new SimpleGrantedAuthority(AuthoritiesConstants.USER),
+        new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS),
+    };
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    static {
+        for (GrantedAuthority authority : CONSTANTS) {
+            AUTHORITIES.put(authority.getAuthority(), authority);
+        }
+    }
+
+    private AuthorityRegistry() {}
+
+    /**
+     * Get the canonical instance of an authority.
+     *
+     * @param name the name of the authority.
+     * @return the authority.
+     */
+    public static GrantedAuthority of(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        if (AUTHORITIES.size() >= MAXIMUM_SIZE) {
+            return new SimpleGrantedAuthority(name);
+        }
+        return AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Parse a comma-separated list of authorities, as found in the claims of a JWT. Blanks around the names are
+     * ignored, and so are empty names.
+     *
+     * @param claim the comma-separated authorities.
+     * @return the canonical instances of the authorities, in order, as an immutable list.
+     */
+    public static List<GrantedAuthority> parse(String claim) {
+        int count = countNames(claim);
+        if (count == 0) {
+            return List.of();
+        }
+        GrantedAuthority[] authorities = new GrantedAuthority[count];
+        int index = 0;
+        int start = 0;
+        int length = claim.length();
+        while (start <= length) {
+            int end = claim.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            int nameStart = skipBlanks(claim, start, end);
+            int nameEnd = skipTrailingBlanks(claim, nameStart, end);
+            if (nameStart < nameEnd) {
+                authorities[index++] = of(claim, nameStart, nameEnd);
+            }
+            start = end + 1;
+        }
+        if (count == 1) {
+            return List.of(authorities[0]);
+        }
+        if (count == 2) {
+            return List.of(authorities[0], authorities[1]);
+        }
+        return List.of(authorities);
+    }
+
+    private static int countNames(String claim) {
+        int count = 0;
+        int start = 0;
+        int length = claim.length();
+        while (start <= length) {
+            int end = claim.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (skipBlanks(claim, start, end) < end) {
+                count++;
+            }
+            start = end + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Get the canonical instance of the authority named by a region of a string, without copying the region when it
+     * names one of the {@link AuthoritiesConstants}.
+     */
+    private static GrantedAuthority of(String claim, int start, int end) {
+        int length = end - start;
+        for (GrantedAuthority constant : CONSTANTS) {
+            String name = constant.getAuthority();
+            if (name.length() == length && claim.regionMatches(start, name, 0, length)) {
+                return constant;
+            }
+        }
+        return of(claim.substring(start, end));
+    }
+
+    private static int skipBlanks(String claim, int start, int end) {
+        while (start < end && Character.isWhitespace(claim.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int skipTrailingBlanks(String claim, int start, int end) {
+        while (end > start && Character.isWhitespace(claim.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
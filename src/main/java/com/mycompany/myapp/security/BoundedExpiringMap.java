@@ -0,0 +1,137 @@
+package com.mycompany.myapp.security;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent map of values which expire, holding about {@code maximumSize} entries at most.
+ * <p>
+ * An expired value is only dropped to make room: when the map is full, the expired entries are purged. A value which
+ * has not expired is never evicted, so a new key is refused while the map is full of them; the map is not scanned
+ * again before the earliest expiration it found.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public final class BoundedExpiringMap<K, V> {
+
+    private final int maximumSize;
+
+    private final ToLongFunction<? super V> expiration;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The time before which no value of a full map expires.
+     */
+    private volatile long purgeAfter;
+
+    /**
+     * @param maximumSize the number of entries beyond which room is made.
+     * @param expiration the time at which a value expires, on the scale of the clock.
+     * @param clock the current time.
+     */
+    public BoundedExpiringMap(int maximumSize, ToLongFunction<? super V> expiration, LongSupplier clock) {
+        this.maximumSize = maximumSize;
+        this.expiration = expiration;
+        this.clock = clock;
+        this.purgeAfter = clock.getAsLong();
+    }
+
+    /**
+     * @param key the key.
+     * @return the value of the key, expired or not, or {@code null} if there is none.
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Return the value of a key, adding it if there is none and the map has room for it.
+     *
+     * @param key the key.
+     * @param mappingFunction the function computing the value of a key which has none.
+     * @return the value of the key, or {@code null} if it has none and the map is full of values which have not expired.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = entries.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (!makeRoomIfFull()) {
+            return null;
+        }
+        value = entries.computeIfAbsent(key, mappingFunction);
+        added(value);
+        return value;
+    }
+
+    /**
+     * @param key the key.
+     * @param value the new value of the key.
+     * @return whether the value was put, {@code false} if the key is new and the map is full of values which have not
+     * expired.
+     */
+    public boolean put(K key, V value) {
+        if (!entries.containsKey(key) && !makeRoomIfFull()) {
+            return false;
+        }
+        entries.put(key, value);
+        added(value);
+        return true;
+    }
+
+    /**
+     * @param key the key.
+     * @param value the value expected for the key.
+     * @return whether the key had that value, and was removed.
+     */
+    public boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return whether the map has room for a new key, once the expired values are purged.
+     */
+    private boolean makeRoomIfFull() {
+        if (entries.size() < maximumSize) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        if (purgeAfter - now > 0) {
+            return false;
+        }
+        long earliest = Long.MAX_VALUE;
+        boolean found = false;
+        for (Iterator<V> values = entries.values().iterator(); values.hasNext();) {
+            long expiresAt = expiration.applyAsLong(values.next());
+            if (expiresAt - now <= 0) {
+                values.remove();
+            } else if (!found || expiresAt - earliest < 0) {
+                earliest = expiresAt;
+                found = true;
+            }
+        }
+        purgeAfter = found ? earliest : now;
+        return entries.size() < maximumSize;
+    }
+
+    /**
+     * A new value may expire before the others: the next purge must not wait past its expiration.
+     */
+    private void added(V value) {
+        long expiresAt = expiration.applyAsLong(value);
+        if (expiresAt - purgeAfter < 0) {
+            purgeAfter = expiresAt;
+        }
+    }
+}
@@ -5,11 +5,9 @@ import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
 import java.util.*;
 import java.util.stream.Collectors;
-import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -35,13 +33,19 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
+        LoginClassifier.Kind kind = LoginClassifier.classify(login);
+        if (kind == LoginClassifier.Kind.EMAIL) {
+            // emails are stored in lower case, the lookups are cached by lower case email
             return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
+                .findOneWithAuthoritiesByEmailIgnoreCase(login.toLowerCase(Locale.ENGLISH))
                 .map(user -> createSpringSecurityUser(login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
+        if (kind == LoginClassifier.Kind.INVALID) {
+            throw new UsernameNotFoundException("User " + login + " is not a valid login nor email");
+        }
 
+        // toLowerCase returns the same instance, without copying it, when it is already in lower case
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
@@ -57,7 +61,7 @@ public class DomainUserDetailsService implements UserDetailsService {
             .getAuthorities()
             .stream()
             .map(Authority::getName)
-            .map(SimpleGrantedAuthority::new)
+            .map(AuthorityRegistry::of)
             .collect(Collectors.toList());
         return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
     }
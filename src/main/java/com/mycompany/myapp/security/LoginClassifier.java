@@ -0,0 +1,115 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.config.Constants;
+
+/**
+ * Tells whether a user typed an email or a login, with the rules of {@link Constants#LOGIN_REGEX}, in a single scan of
+ * precomputed character tables: it runs for every authentication, where a validator and its regular expressions used
+ * to be built each time.
+ * <p>
+ * An email is a local part, a single {@code @} and a domain of dot-separated labels of letters, digits and dashes. The
+ * local part also accepts the characters {@code @Email} accepts and {@link Constants#LOGIN_REGEX} does not, such as
+ * {@code '} or non-ASCII letters, so that the users registered with such emails can still log in with them.
+ */
+public final class LoginClassifier {
+
+    public enum Kind {
+        EMAIL,
+        LOGIN,
+        INVALID,
+    }
+
+    /**
+     * The longest email allowed by {@code AdminUserDTO}, logins are shorter.
+     */
+    static final int MAXIMUM_LENGTH = 254;
+
+    private static final boolean[] LOGIN_CHARS = charTable("_.@-");
+
+    private static final boolean[] LOCAL_PART_CHARS = charTable("!#$%&'*+/=?^_`{|}~.-");
+
+    private static final boolean[] DOMAIN_CHARS = charTable("-");
+
+    private LoginClassifier() {}
+
+    /**
+     * Classify what a user typed to log in. A value which is both a valid email and a valid login, such as
+     * {@code john@example.com}, is an email.
+     *
+     * @param value the email or login, in any case.
+     * @return the kind of value, {@link Kind#INVALID} if no user can have it as email or login.
+     */
+    public static Kind classify(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAXIMUM_LENGTH) {
+            return Kind.INVALID;
+        }
+        if (isEmailAddress(value)) {
+            return Kind.EMAIL;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!contains(LOGIN_CHARS, value.charAt(i))) {
+                return Kind.INVALID;
+            }
+        }
+        return Kind.LOGIN;
+    }
+
+    /**
+     * @param value the value to check, may be {@code null}.
+     * @return whether the value is an email, as classified by {@link #classify(String)}.
+     */
+    public static boolean isEmail(String value) {
+        return classify(value) == Kind.EMAIL;
+    }
+
+    private static boolean isEmailAddress(String value) {
+        int at = value.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80 ? !contains(LOCAL_PART_CHARS, c) : Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        // a label may not be empty: the domain may neither start nor end with a dot, nor contain two in a row
+        boolean emptyLabel = true;
+        for (int i = at + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (emptyLabel) {
+                    return false;
+                }
+                emptyLabel = true;
+            } else if (contains(DOMAIN_CHARS, c)) {
+                emptyLabel = false;
+            } else {
+                return false;
+            }
+        }
+        return !emptyLabel;
+    }
+
+    private static boolean contains(boolean[] table, char c) {
+        return c < table.length && table[c];
+    }
+
+    /**
+     * The ASCII letters and digits, and some other characters.
+     */
+    private static boolean[] charTable(String others) {
+        boolean[] table = new boolean[0x80];
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = true;
+            table[Character.toUpperCase(c)] = true;
+        }
+        for (int i = 0; i < others.length(); i++) {
+            table[others.charAt(i)] = true;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.security;
+
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The routes which are permitted to everyone and behave the same whoever calls them: the static resources of the
+ * client application and the endpoints scraped by the monitoring. The {@code JWTFilter} does not authenticate their
+ * requests, even when they carry a token.
+ * <p>
+ * The routes are matched with prefixes, suffixes and a set of paths built once, rather than with Ant patterns. They
+ * must stay permitted by the {@code SecurityConfiguration}, and must not include routes whose response depends on the
+ * principal, such as {@code /management/health}, which shows its details to the administrators.
+ */
+public final class PublicRoutes {
+
+    private static final Set<String> PATHS = Set.of("/favicon.ico", "/management/info", "/management/jwks", "/management/prometheus");
+
+    private static final String[] PREFIXES = { "/content/", "/i18n/", "/swagger-ui/" };
+
+    private static final String APP_PREFIX = "/app/";
+
+    private static final String[] APP_SUFFIXES = { ".js", ".html" };
+
+    /**
+     * The static resources served from the root, as in {@code StaticResourcesWebConfiguration}.
+     */
+    private static final String[] ROOT_SUFFIXES = { ".js", ".css", ".svg", ".png", ".ico" };
+
+    private PublicRoutes() {}
+
+    /**
+     * @param request the request.
+     * @return whether the request is for a public route, and needs no authentication.
+     */
+    public static boolean isPublic(HttpServletRequest request) {
+        // a path info means the request is not served by the dispatcher servlet, e.g. by the H2 console
+        return request.getPathInfo() == null && isPublicPath(request.getServletPath());
+    }
+
+    static boolean isPublicPath(String path) {
+        if (PATHS.contains(path)) {
+            return true;
+        }
+        for (String prefix : PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        if (path.startsWith(APP_PREFIX)) {
+            return endsWithAny(path, APP_SUFFIXES);
+        }
+        return path.lastIndexOf('/') == 0 && endsWithAny(path, ROOT_SUFFIXES);
+    }
+
+    private static boolean endsWithAny(String path, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (path.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
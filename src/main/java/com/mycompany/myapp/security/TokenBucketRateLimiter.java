@@ -0,0 +1,71 @@
+package com.mycompany.myapp.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets, one per key: each key may be acquired {@code capacity} times in a burst, then once every
+ * {@code period / capacity}.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it is full again (the generic cell rate algorithm),
+ * updated with a compare-and-set. A full bucket holds no information, so it can be dropped: the buckets are kept in a
+ * {@link BoundedExpiringMap}, where a bucket expires once it is full. A bucket which is not full is never dropped, so
+ * that many new keys cannot reset the throttling of a key: while there are {@code maximumKeys} of them, the new keys
+ * are throttled instead.
+ */
+public final class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final LongSupplier clock;
+
+    private final BoundedExpiringMap<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration period, int maximumKeys) {
+        this(capacity, period, maximumKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration period, int maximumKeys, LongSupplier clock) {
+        if (capacity <= 0 || period.isNegative() || period.isZero() || maximumKeys <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit");
+        }
+        this.emissionIntervalNanos = period.toNanos() / capacity;
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.clock = clock;
+        // a bucket expires once it is full again
+        this.buckets = new BoundedExpiringMap<>(maximumKeys, AtomicLong::get, clock);
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return {@code 0} if a token was taken, otherwise the time to wait for the next token, in nanoseconds.
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        if (bucket == null) {
+            // no room for a new key
+            return emissionIntervalNanos;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long nextFullAt = Math.max(fullAt - now, 0) + now + emissionIntervalNanos;
+            long wait = nextFullAt - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
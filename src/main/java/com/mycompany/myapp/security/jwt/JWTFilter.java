@@ -1,19 +1,19 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.mycompany.myapp.security.PublicRoutes;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
- * found.
+ * found. The requests for the {@link PublicRoutes} are passed through without looking for a token.
  */
 public class JWTFilter extends GenericFilterBean {
 
@@ -29,10 +29,14 @@ public class JWTFilter extends GenericFilterBean {
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
-        String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (!PublicRoutes.isPublic(httpServletRequest)) {
+            String jwt = resolveToken(httpServletRequest);
+            if (StringUtils.hasText(jwt)) {
+                TokenValidationResult result = this.tokenProvider.authenticateToken(jwt);
+                if (result.isValid()) {
+                    SecurityContextHolder.getContext().setAuthentication(result.getAuthentication());
+                }
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -0,0 +1,30 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint publishing the public keys of the JWTs as a JSON Web Key Set, at {@code /management/jwks}, so that
+ * other services can verify the tokens themselves.
+ */
+@Component
+@Endpoint(id = "jwks")
+public class JwksEndpoint {
+
+    private static final String JWK_SET_MEDIA_TYPE = "application/jwk-set+json";
+
+    private final TokenProvider tokenProvider;
+
+    public JwksEndpoint(TokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    @ReadOperation(produces = { JWK_SET_MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    public Map<String, List<Map<String, Object>>> jwks() {
+        return Map.of("keys", tokenProvider.getPublicKeys());
+    }
+}
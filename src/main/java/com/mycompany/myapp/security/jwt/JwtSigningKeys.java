@@ -0,0 +1,172 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Elliptic curve keys of the JWTs: the active key signs the new tokens, and every key verifies the tokens which name it
+ * in their {@code kid} header, so that a key can be rotated without rejecting the tokens it signed.
+ */
+final class JwtSigningKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtSigningKeys.class);
+
+    static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+    private static final String CURVE = "P-256";
+
+    private static final int COORDINATE_LENGTH = 32;
+
+    private final String activeKeyId;
+
+    private final PrivateKey activeKey;
+
+    private final Map<String, ECPublicKey> verificationKeys;
+
+    private JwtSigningKeys(String activeKeyId, PrivateKey activeKey, Map<String, ECPublicKey> verificationKeys) {
+        this.activeKeyId = activeKeyId;
+        this.activeKey = activeKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+    }
+
+    /**
+     * Load the configured keys, or generate a key pair if none is configured.
+     *
+     * @param signing the signing properties.
+     * @return the keys.
+     * @throws IllegalStateException if a key is invalid, or if the active key is not configured with its private key.
+     */
+    static JwtSigningKeys from(ApplicationProperties.Security.Signing signing) {
+        if (signing.getKeys().isEmpty()) {
+            log.warn(
+                "Warning: no JWT signing key is configured, a temporary one is generated. " +
+                "The tokens will not be accepted by the other instances, nor after a restart: " +
+                "configure the `application.security.signing.keys`."
+            );
+            KeyPair keyPair = Keys.keyPairFor(ALGORITHM);
+            String keyId = UUID.randomUUID().toString();
+            return new JwtSigningKeys(keyId, keyPair.getPrivate(), Map.of(keyId, (ECPublicKey) keyPair.getPublic()));
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            Map<String, ECPublicKey> verificationKeys = new LinkedHashMap<>();
+            PrivateKey activeKey = null;
+            for (ApplicationProperties.Security.Signing.Key key : signing.getKeys()) {
+                if (ObjectUtils.isEmpty(key.getId()) || verificationKeys.containsKey(key.getId())) {
+                    throw new IllegalStateException("Each JWT signing key needs a unique id");
+                }
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decode(key.getPublicKey(), key.getId())));
+                if (!isCurveKey(publicKey)) {
+                    throw new IllegalStateException("The JWT signing key " + key.getId() + " is not a " + CURVE + " key");
+                }
+                verificationKeys.put(key.getId(), (ECPublicKey) publicKey);
+                if (key.getId().equals(signing.getActiveKeyId())) {
+                    activeKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(key.getPrivateKey(), key.getId())));
+                    checkKeyPair(key.getId(), activeKey, publicKey);
+                }
+            }
+            if (activeKey == null) {
+                throw new IllegalStateException("The active JWT signing key " + signing.getActiveKeyId() + " is not configured");
+            }
+            return new JwtSigningKeys(signing.getActiveKeyId(), activeKey, verificationKeys);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT signing key", e);
+        }
+    }
+
+    String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    PrivateKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * @param keyId the {@code kid} header of a token.
+     * @return the key verifying the token, or {@code null} if the key is unknown.
+     */
+    PublicKey getVerificationKey(String keyId) {
+        return verificationKeys.get(keyId);
+    }
+
+    /**
+     * @return the public keys, as the {@code keys} of a JSON Web Key Set (RFC 7517).
+     */
+    List<Map<String, Object>> toJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>(verificationKeys.size());
+        for (Map.Entry<String, ECPublicKey> key : verificationKeys.entrySet()) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", CURVE);
+            jwk.put("x", encodeCoordinate(key.getValue().getW().getAffineX()));
+            jwk.put("y", encodeCoordinate(key.getValue().getW().getAffineY()));
+            jwk.put("kid", key.getKey());
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM.getValue());
+            jwks.add(jwk);
+        }
+        return jwks;
+    }
+
+    private static byte[] decode(String key, String keyId) {
+        if (ObjectUtils.isEmpty(key)) {
+            throw new IllegalStateException("The JWT signing key " + keyId + " is missing");
+        }
+        // accept PEM as well as plain Base64
+        String base64 = key.replaceAll("-----(BEGIN|END)[^-]*-----", "").replaceAll("\\s", "");
+        try {
+            return Base64.getDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("The JWT signing key " + keyId + " is not encoded in Base64", e);
+        }
+    }
+
+    private static boolean isCurveKey(PublicKey key) {
+        return key instanceof ECPublicKey && ((ECPublicKey) key).getParams().getCurve().getField().getFieldSize() == COORDINATE_LENGTH * 8;
+    }
+
+    private static void checkKeyPair(String keyId, PrivateKey privateKey, PublicKey publicKey) throws GeneralSecurityException {
+        byte[] probe = keyId.getBytes(StandardCharsets.UTF_8);
+        Signature signature = Signature.getInstance(ALGORITHM.getJcaName());
+        signature.initSign(privateKey);
+        signature.update(probe);
+        byte[] signed = signature.sign();
+        signature.initVerify(publicKey);
+        signature.update(probe);
+        if (!signature.verify(signed)) {
+            throw new IllegalStateException("The private and public keys of the JWT signing key " + keyId + " do not match");
+        }
+    }
+
+    private static String encodeCoordinate(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        // unsigned, left-padded to the size of the curve
+        byte[] padded = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+}
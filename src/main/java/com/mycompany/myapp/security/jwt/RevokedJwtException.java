@@ -0,0 +1,15 @@
+package com.mycompany.myapp.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Thrown when a valid JWT was revoked before it expired.
+ */
+class RevokedJwtException extends JwtException {
+
+    private static final long serialVersionUID = 1L;
+
+    RevokedJwtException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,15 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthorityRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -14,7 +17,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -39,12 +41,35 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final JwtSigningKeys signingKeys;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        TokenRevocationList tokenRevocationList
+    ) {
+        String algorithm = applicationProperties.getSecurity().getSigning().getAlgorithm();
+        if (JwtSigningKeys.ALGORITHM.getValue().equals(algorithm)) {
+            signingKeys = JwtSigningKeys.from(applicationProperties.getSecurity().getSigning());
+        } else if (SignatureAlgorithm.HS512.getValue().equals(algorithm)) {
+            signingKeys = null;
+        } else {
+            throw new IllegalStateException("Unsupported JWT signing algorithm " + algorithm + ", use HS512 or ES256");
+        }
+
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
             log.debug("Using a Base64-encoded JWT secret key");
             keyBytes = Decoders.BASE64.decode(secret);
+        } else if (signingKeys != null && ObjectUtils.isEmpty(jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret())) {
+            // tokens without a kid header, signed with a secret before the switch to ES256, are rejected
+            keyBytes = null;
         } else {
             log.warn(
                 "Warning: the JWT key used is not Base64-encoded. " +
@@ -53,18 +78,29 @@ public class TokenProvider {
             secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
-        key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        key = keyBytes == null ? null : Keys.hmacShaKeyFor(keyBytes);
+        jwtParser =
+            Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(
+                    new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            return resolveVerificationKey(header);
+                        }
+                    }
+                )
+                .build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.verifiedTokenCache = new VerifiedTokenCache(applicationProperties.getSecurity().getTokenCache().getMaximumSize());
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
-
         long now = (new Date()).getTime();
         Date validity;
         if (rememberMe) {
@@ -72,55 +108,152 @@ public class TokenProvider {
         } else {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
+        return createToken(authentication, validity);
+    }
+
+    /**
+     * Create a token valid for the given duration, rather than for the configured token validity.
+     *
+     * @param authentication the authentication carried by the token.
+     * @param validity the validity of the token.
+     * @return the token.
+     */
+    public String createToken(Authentication authentication, Duration validity) {
+        return createToken(authentication, new Date(System.currentTimeMillis() + validity.toMillis()));
+    }
+
+    private String createToken(Authentication authentication, Date validity) {
+        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
 
-        return Jwts
+        JwtBuilder builder = Jwts
             .builder()
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setIssuedAt(new Date());
+        if (signingKeys != null) {
+            builder
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.getActiveKeyId())
+                .signWith(signingKeys.getActiveKey(), JwtSigningKeys.ALGORITHM);
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS512);
+        }
+        return builder.setExpiration(validity).compact();
+    }
+
+    /**
+     * Get the public keys verifying the tokens, to be published as a JSON Web Key Set. There are none when the tokens
+     * are signed with a shared secret.
+     *
+     * @return the public keys, as JSON Web Keys.
+     */
+    public List<Map<String, Object>> getPublicKeys() {
+        return signingKeys == null ? List.of() : signingKeys.toJwks();
     }
 
+    /**
+     * Get the authentication carried by a token, see {@link #authenticateToken(String)}.
+     *
+     * @param token the token.
+     * @return the authentication, or {@code null} if the token is not valid.
+     */
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return authenticateToken(token).getAuthentication();
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+    public boolean validateToken(String authToken) {
+        return authenticateToken(authToken).isValid();
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    /**
+     * Validate a token and build its authentication, parsing it at most once. A rejected token is counted by the
+     * {@link SecurityMetersService} according to the reason of the rejection.
+     *
+     * @param token the token.
+     * @return the authentication carried by the token, or the reason it was rejected.
+     */
+    public TokenValidationResult authenticateToken(String token) {
+        String digest = VerifiedTokenCache.digest(token);
+        User principal = verifiedTokenCache.get(digest);
+        if (principal != null) {
+            this.securityMetersService.trackTokenCacheHit();
+            // the issue time is only looked up for the few subjects which may be revoked
+            if (
+                tokenRevocationList.mightBeRevoked(principal.getUsername()) &&
+                tokenRevocationList.isRevoked(principal.getUsername(), verifiedTokenCache.getIssuedAt(digest))
+            ) {
+                this.securityMetersService.trackTokenRevoked();
+                return TokenValidationResult.failure(TokenValidationResult.Status.REVOKED);
+            }
+        } else {
+            this.securityMetersService.trackTokenCacheMiss();
+            try {
+                principal = verify(token, digest);
+            } catch (ExpiredJwtException e) {
+                this.securityMetersService.trackTokenExpired();
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
-    }
+                log.trace(INVALID_JWT_TOKEN, e);
+                return TokenValidationResult.failure(TokenValidationResult.Status.EXPIRED);
+            } catch (UnsupportedJwtException e) {
+                this.securityMetersService.trackTokenUnsupported();
 
-    public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+                log.trace(INVALID_JWT_TOKEN, e);
+                return TokenValidationResult.failure(TokenValidationResult.Status.UNSUPPORTED);
+            } catch (MalformedJwtException e) {
+                this.securityMetersService.trackTokenMalformed();
 
-            return true;
-        } catch (ExpiredJwtException e) {
-            this.securityMetersService.trackTokenExpired();
+                log.trace(INVALID_JWT_TOKEN, e);
+                return TokenValidationResult.failure(TokenValidationResult.Status.MALFORMED);
+            } catch (SignatureException e) {
+                this.securityMetersService.trackTokenInvalidSignature();
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (UnsupportedJwtException e) {
-            this.securityMetersService.trackTokenUnsupported();
+                log.trace(INVALID_JWT_TOKEN, e);
+                return TokenValidationResult.failure(TokenValidationResult.Status.INVALID_SIGNATURE);
+            } catch (RevokedJwtException e) {
+                this.securityMetersService.trackTokenRevoked();
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (MalformedJwtException e) {
-            this.securityMetersService.trackTokenMalformed();
+                log.trace(INVALID_JWT_TOKEN, e);
+                return TokenValidationResult.failure(TokenValidationResult.Status.REVOKED);
+            } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
+                log.error("Token validation error {}", e.getMessage());
+                return TokenValidationResult.failure(TokenValidationResult.Status.INVALID);
+            }
+        }
+
+        return TokenValidationResult.valid(new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities()));
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (SignatureException e) {
-            this.securityMetersService.trackTokenInvalidSignature();
+    /**
+     * Select the key verifying a token: the public key named by its {@code kid} header, or the secret key for the
+     * tokens without a {@code kid}. The algorithm of the token must be the one of its key.
+     */
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (key == null || !SignatureAlgorithm.HS512.getValue().equals(header.getAlgorithm())) {
+                throw new SignatureException("JWT without a key id");
+            }
+            return key;
+        }
+        Key verificationKey = signingKeys == null ? null : signingKeys.getVerificationKey(keyId);
+        if (verificationKey == null || !JwtSigningKeys.ALGORITHM.getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Unknown JWT key " + keyId);
+        }
+        return verificationKey;
+    }
 
-            log.trace(INVALID_JWT_TOKEN, e);
-        } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
-            log.error("Token validation error {}", e.getMessage());
+    /**
+     * Parse and verify a token, check that it is not revoked, then cache its principal until it expires.
+     */
+    private User verify(String token, String digest) {
+        Claims claims = this.securityMetersService.timeTokenVerification(() -> jwtParser.parseClaimsJws(token).getBody());
+        if (tokenRevocationList.isRevoked(claims.getSubject(), claims.getIssuedAt())) {
+            throw new RevokedJwtException("JWT of " + claims.getSubject() + " issued at " + claims.getIssuedAt() + " was revoked");
         }
 
-        return false;
+        List<GrantedAuthority> authorities = AuthorityRegistry.parse(claims.get(AUTHORITIES_KEY).toString());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+        verifiedTokenCache.put(digest, principal, claims.getIssuedAt(), claims.getExpiration());
+        return principal;
     }
 }
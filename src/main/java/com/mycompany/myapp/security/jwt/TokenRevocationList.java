@@ -0,0 +1,100 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.security.BloomFilter;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory list of the revoked JWTs: the tokens of a subject issued before the time it was revoked.
+ * <p>
+ * It is checked for every authenticated request, so the subjects are first looked up in a {@link BloomFilter}: a
+ * subject which was never revoked, the common case, is accepted after hashing its name, without touching the map of
+ * revocation times. The list is filled by the {@link TokenRevocationService} from the {@code token_revocation} table,
+ * which is shared by the nodes.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveProbability;
+
+    private volatile State state;
+
+    public TokenRevocationList(ApplicationProperties applicationProperties) {
+        this.expectedInsertions = applicationProperties.getSecurity().getTokenRevocation().getExpectedInsertions();
+        this.falsePositiveProbability = applicationProperties.getSecurity().getTokenRevocation().getFalsePositiveProbability();
+        this.state = new State(expectedInsertions, falsePositiveProbability);
+    }
+
+    /**
+     * @param subject the subject of a token.
+     * @return {@code false} if no token of the subject is revoked, {@code true} if some may be.
+     */
+    public boolean mightBeRevoked(String subject) {
+        return state.filter.mightContain(subject);
+    }
+
+    /**
+     * @param subject the subject of a token.
+     * @param issuedAt the issue time of the token, {@code null} if unknown.
+     * @return whether the token is revoked. A token of a revoked subject without issue time is revoked.
+     */
+    public boolean isRevoked(String subject, Date issuedAt) {
+        State current = state;
+        if (!current.filter.mightContain(subject)) {
+            return false;
+        }
+        Long revokedBefore = current.revokedBefore.get(subject);
+        return revokedBefore != null && (issuedAt == null || issuedAt.getTime() < revokedBefore);
+    }
+
+    /**
+     * Revoke the tokens of a subject issued before a time.
+     *
+     * @param subject the subject.
+     * @param revokedAt the revocation time.
+     */
+    public void revoke(String subject, Instant revokedAt) {
+        State current = state;
+        current.revokedBefore.merge(subject, revokedBefore(revokedAt), Math::max);
+        current.filter.put(subject);
+    }
+
+    /**
+     * Replace the whole list, after the expired revocations were purged.
+     *
+     * @param revocations the revocation times, by subject.
+     */
+    public void replaceAll(Map<String, Instant> revocations) {
+        State replacement = new State(Math.max(expectedInsertions, 2 * revocations.size()), falsePositiveProbability);
+        revocations.forEach((subject, revokedAt) -> {
+            replacement.revokedBefore.merge(subject, revokedBefore(revokedAt), Math::max);
+            replacement.filter.put(subject);
+        });
+        state = replacement;
+    }
+
+    /**
+     * The issue time of the tokens is in seconds: round the revocation time up to the next second, so that a token
+     * issued in the same second as the revocation, possibly before it, is revoked too.
+     */
+    private static long revokedBefore(Instant revokedAt) {
+        return revokedAt.getNano() == 0 ? revokedAt.toEpochMilli() : (revokedAt.getEpochSecond() + 1) * 1000;
+    }
+
+    private static final class State {
+
+        private final BloomFilter filter;
+
+        private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+        private State(int expectedInsertions, double falsePositiveProbability) {
+            this.filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.TokenRevocation;
+import com.mycompany.myapp.repository.TokenRevocationRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Records the revocations of JWTs in the {@code token_revocation} table, and keeps the {@link TokenRevocationList} of
+ * this node up to date with the revocations recorded by the other nodes.
+ * <p>
+ * Each synchronization only loads the revocations recorded since the previous one, with a margin for the transactions
+ * committed late; the whole list is loaded again after the nightly purge of the revocations whose tokens have expired.
+ */
+@Component
+public class TokenRevocationService implements SchedulingConfigurer {
+
+    private static final Duration SYNC_MARGIN = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final Duration syncInterval;
+
+    private final Duration tokenValidity;
+
+    private volatile Instant lastSync;
+
+    public TokenRevocationService(
+        TokenRevocationRepository tokenRevocationRepository,
+        TokenRevocationList tokenRevocationList,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.syncInterval = applicationProperties.getSecurity().getTokenRevocation().getSyncInterval();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.tokenValidity = Duration.ofSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::sync, syncInterval.toMillis());
+    }
+
+    /**
+     * Revoke the tokens of a subject issued until now, on this node right away and on the other nodes at their next
+     * synchronization. This node does not wait for the commit: a revocation rolled back only logs the subject out.
+     *
+     * @param subject the subject of the tokens, the login of a user.
+     */
+    @Transactional
+    public void revoke(String subject) {
+        Instant now = Instant.now();
+        TokenRevocation tokenRevocation = new TokenRevocation();
+        tokenRevocation.setSubject(subject);
+        tokenRevocation.setRevokedAt(now);
+        tokenRevocation.setExpiresAt(now.plus(tokenValidity));
+        tokenRevocationRepository.save(tokenRevocation);
+        tokenRevocationList.revoke(subject, now);
+        log.debug("Revoked the tokens of {}", subject);
+    }
+
+    /**
+     * Load the revocations recorded since the previous synchronization, or all of them on the first one.
+     */
+    public void sync() {
+        Instant now = Instant.now();
+        try {
+            if (lastSync == null) {
+                reload(now);
+            } else {
+                List<TokenRevocation> revocations = tokenRevocationRepository.findAllByRevokedAtAfter(lastSync.minus(SYNC_MARGIN));
+                revocations.forEach(revocation -> tokenRevocationList.revoke(revocation.getSubject(), revocation.getRevokedAt()));
+            }
+            lastSync = now;
+        } catch (DataAccessException e) {
+            log.warn("Could not load the token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revocations should be deleted once the tokens they revoke have expired.
+     * <p>
+     * This is scheduled to get fired everyday, at 03:00 (am), on every node, which then loads the remaining
+     * revocations into a new list.
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    @Transactional
+    public void removeExpiredRevocations() {
+        Instant now = Instant.now();
+        int deleted = tokenRevocationRepository.deleteByExpiresAtBefore(now);
+        log.debug("Deleted {} expired token revocations", deleted);
+        reload(now);
+        lastSync = now;
+    }
+
+    private void reload(Instant now) {
+        Map<String, Instant> revocations = new HashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository.findAllByExpiresAtAfter(now)) {
+            revocations.merge(revocation.getSubject(), revocation.getRevokedAt(), TokenRevocationService::latest);
+        }
+        tokenRevocationList.replaceAll(revocations);
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Outcome of the validation of a JWT: either the authentication it carries, or the reason it was rejected.
+ */
+public final class TokenValidationResult {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        UNSUPPORTED,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        REVOKED,
+        INVALID,
+    }
+
+    private static final Map<Status, TokenValidationResult> FAILURES = new EnumMap<>(Status.class);
+
+    static {
+        for (Status status : Status.values()) {
+            if (status != Status.VALID) {
+                FAILURES.put(status, new TokenValidationResult(status, null));
+            }
+        }
+    }
+
+    private final Status status;
+
+    private final Authentication authentication;
+
+    private TokenValidationResult(Status status, Authentication authentication) {
+        this.status = status;
+        this.authentication = authentication;
+    }
+
+    public static TokenValidationResult valid(Authentication authentication) {
+        return new TokenValidationResult(Status.VALID, Objects.requireNonNull(authentication));
+    }
+
+    public static TokenValidationResult failure(Status status) {
+        if (status == Status.VALID) {
+            throw new IllegalArgumentException("A valid result needs an authentication");
+        }
+        return FAILURES.get(status);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the authentication carried by the token, or {@code null} if the token is not valid.
+     */
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TokenValidationResult{" +
+            "status=" + status +
+            "}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.security.BoundedExpiringMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.LongSupplier;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Bounded cache of the principals of verified JWTs, keyed by a SHA-256 digest of the token, so that the tokens
+ * themselves are not kept.
+ * <p>
+ * An expired token is never accepted from the cache, and its entry is dropped when it is looked up, or to make room in
+ * the {@link BoundedExpiringMap} holding the entries. While it is full of tokens which have not expired, the new tokens
+ * are verified on each request instead of being cached.
+ */
+final class VerifiedTokenCache {
+
+    private final int maximumSize;
+
+    private final LongSupplier clock;
+
+    private final BoundedExpiringMap<String, Entry> entries;
+
+    VerifiedTokenCache(int maximumSize) {
+        this(maximumSize, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(int maximumSize, LongSupplier clock) {
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+        this.entries = new BoundedExpiringMap<>(maximumSize, entry -> entry.expiresAt, clock);
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Return the principal of a verified token.
+     *
+     * @param digest the digest of the token.
+     * @return the principal, or {@code null} if the token is not cached or has expired.
+     */
+    User get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Return the issue time of a verified token.
+     *
+     * @param digest the digest of the token.
+     * @return the issue time, or {@code null} if the token has none or is not cached.
+     */
+    Date getIssuedAt(String digest) {
+        Entry entry = entries.get(digest);
+        return entry == null ? null : entry.issuedAt;
+    }
+
+    /**
+     * Cache the principal of a verified token, until the token expires. Tokens without expiration are not cached, nor
+     * new tokens while the cache is full.
+     *
+     * @param digest the digest of the token.
+     * @param principal the principal.
+     * @param issuedAt the issue time of the token, checked against its revocations.
+     * @param expiration the expiration time of the token.
+     */
+    void put(String digest, User principal, Date issuedAt, Date expiration) {
+        if (maximumSize <= 0 || expiration == null) {
+            return;
+        }
+        entries.put(digest, new Entry(principal, issuedAt, expiration.getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final User principal;
+
+        private final Date issuedAt;
+
+        private final long expiresAt;
+
+        private Entry(User principal, Date issuedAt, long expiresAt) {
+            this.principal = principal;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mycompany.myapp.service;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.Criteria;
+
+/**
+ * Service answering approximate entity counts, for list endpoints where an exact {@code count(*)} costs as much as
+ * fetching the page itself.
+ * <p>
+ * Unfiltered counts are read from the PostgreSQL planner statistics ({@code pg_class.reltuples}), which are kept up to
+ * date by autovacuum. Filtered counts, and unfiltered ones on other databases or on tables which were never analyzed,
+ * are computed exactly once and then served from the {@link #COUNTS_BY_CRITERIA_CACHE} cache until it expires.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ApproximateCountService {
+
+    public static final String COUNTS_BY_CRITERIA_CACHE = "countsByCriteria";
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String RELTUPLES_QUERY = "select reltuples from pg_class where oid = to_regclass(?)";
+
+    private final Logger log = LoggerFactory.getLogger(ApproximateCountService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CacheManager cacheManager;
+
+    private volatile Boolean postgresql;
+
+    public ApproximateCountService(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Return an approximation of the number of rows of a table which match the criteria.
+     * @param tableName The table the entities are stored in.
+     * @param criteria The normalized criteria, or {@code null} if the entities are not filtered.
+     * @param exactCount The exact count query, used when no approximation is available.
+     * @return the approximate number of matching entities.
+     */
+    public long count(String tableName, Criteria criteria, LongSupplier exactCount) {
+        if (criteria == null && isPostgresql()) {
+            Double reltuples = jdbcTemplate.queryForObject(RELTUPLES_QUERY, Double.class, tableName);
+            // reltuples is -1 (or 0 before PostgreSQL 14) as long as the table has never been analyzed
+            if (reltuples != null && reltuples > 0) {
+                return reltuples.longValue();
+            }
+        }
+        String key = tableName + ":" + (criteria == null ? "" : criteria.toString());
+        Long count = Objects.requireNonNull(cacheManager.getCache(COUNTS_BY_CRITERIA_CACHE)).get(key, exactCount::getAsLong);
+        return count == null ? 0 : count;
+    }
+
+    private boolean isPostgresql() {
+        Boolean result = postgresql;
+        if (result == null) {
+            result =
+                jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName())
+                );
+            log.debug("Approximate counts from planner statistics are {}", Boolean.TRUE.equals(result) ? "enabled" : "disabled");
+            postgresql = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+}
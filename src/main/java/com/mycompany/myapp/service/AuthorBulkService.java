@@ -0,0 +1,79 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Author;
+import com.mycompany.myapp.repository.AuthorRepository;
+import com.mycompany.myapp.service.dto.AuthorDTO;
+import com.mycompany.myapp.service.mapper.AuthorMapper;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Service for processing the operations of a bulk request on {@link Author}.
+ */
+@Service
+public class AuthorBulkService extends BulkService<Author, AuthorDTO> {
+
+    private final AuthorMapper authorMapper;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final BookService bookService;
+
+    public AuthorBulkService(
+        EntityManager entityManager,
+        AuthorRepository authorRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        AuthorMapper authorMapper,
+        CacheInvalidationService cacheInvalidationService,
+        BookService bookService
+    ) {
+        super(entityManager, authorRepository, transactionManager, applicationProperties.getBulk().getChunkSize());
+        this.authorMapper = authorMapper;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.bookService = bookService;
+    }
+
+    @Override
+    protected Long getId(AuthorDTO authorDTO) {
+        return authorDTO.getId();
+    }
+
+    @Override
+    protected Long getVersion(AuthorDTO authorDTO) {
+        return authorDTO.getVersion();
+    }
+
+    @Override
+    protected Long getEntityId(Author author) {
+        return author.getId();
+    }
+
+    @Override
+    protected Long getEntityVersion(Author author) {
+        return author.getVersion();
+    }
+
+    @Override
+    protected Author toEntity(AuthorDTO authorDTO) {
+        return authorMapper.toEntity(authorDTO).version(null);
+    }
+
+    @Override
+    protected void update(Author author, AuthorDTO authorDTO) {
+        author.name(authorDTO.getName()).birthDate(authorDTO.getBirthDate());
+    }
+
+    @Override
+    protected void evict(Set<Long> ids) {
+        cacheInvalidationService.evictAll(
+            AuthorService.AUTHORS_BY_ID_CACHE,
+            ids.stream().map(Object::toString).collect(Collectors.toList())
+        );
+        bookService.evictBooksOfAuthors(ids);
+    }
+}
@@ -7,35 +7,50 @@ import com.mycompany.myapp.service.criteria.AuthorCriteria;
 import com.mycompany.myapp.service.dto.AuthorDTO;
 import com.mycompany.myapp.service.mapper.AuthorMapper;
 import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link Author} entities in the database.
  * The main input is a {@link AuthorCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link AuthorDTO} or a {@link Page} of {@link AuthorDTO} which fulfills the criteria.
+ * It returns a {@link List} of {@link AuthorDTO}, a {@link Page} of {@link AuthorDTO} or a {@link Slice} of {@link AuthorDTO}
+ * which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class AuthorQueryService extends QueryService<Author> {
+public class AuthorQueryService extends SliceQueryService<Author> {
 
     private final Logger log = LoggerFactory.getLogger(AuthorQueryService.class);
 
+    private static final String TABLE_NAME = "author";
+
     private final AuthorRepository authorRepository;
 
     private final AuthorMapper authorMapper;
 
-    public AuthorQueryService(AuthorRepository authorRepository, AuthorMapper authorMapper) {
+    private final ApproximateCountService approximateCountService;
+
+    public AuthorQueryService(
+        AuthorRepository authorRepository,
+        AuthorMapper authorMapper,
+        EntityManager entityManager,
+        ApproximateCountService approximateCountService
+    ) {
+        super(entityManager, Author.class, AuthorRepository.QUERY_CACHE_REGION);
         this.authorRepository = authorRepository;
         this.authorMapper = authorMapper;
+        this.approximateCountService = approximateCountService;
     }
 
     /**
@@ -63,6 +78,66 @@ public class AuthorQueryService extends QueryService<Author> {
         return authorRepository.findAll(specification, page).map(authorMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link AuthorDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AuthorDTO> findSliceByCriteria(AuthorCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Author> specification = createSpecification(criteria);
+        return findSlice(specification, page).map(authorMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Page} of {@link AuthorDTO} which matches the criteria from the database, with an approximate total.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     * @see ApproximateCountService
+     */
+    @Transactional(readOnly = true)
+    public Page<AuthorDTO> findByCriteriaWithApproximateCount(AuthorCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Author> specification = createSpecification(criteria);
+        Slice<AuthorDTO> slice = findSlice(specification, page).map(authorMapper::toDto);
+        AuthorCriteria normalizedCriteria = criteria == null || criteria.equals(new AuthorCriteria()) ? null : criteria.copy();
+        long total = approximateCountService.count(TABLE_NAME, normalizedCriteria, () -> authorRepository.count(specification));
+        return toPage(slice, total);
+    }
+
+    /**
+     * Return the {@link #versionTag(AuthorDTO) version tags} of the {@link AuthorDTO} of a page which matches the
+     * criteria, without loading nor mapping the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, whose entities should be described.
+     * @return the version tags, in page order.
+     */
+    @Transactional(readOnly = true)
+    public List<String> findVersionTagsByCriteria(AuthorCriteria criteria, Pageable page) {
+        log.debug("find version tags by criteria : {}, page: {}", criteria, page);
+        final Specification<Author> specification = createSpecification(criteria);
+        return findPageTuples(specification, page, root -> List.<Selection<?>>of(root.get(Author_.id), root.get(Author_.version)))
+            .stream()
+            .map(tuple -> versionTag(tuple.get(0, Long.class), tuple.get(1, Long.class)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Return the version tag of an author, which changes whenever its representation does.
+     * @param author The author.
+     * @return the version tag.
+     */
+    public static String versionTag(AuthorDTO author) {
+        return versionTag(author.getId(), author.getVersion());
+    }
+
+    private static String versionTag(Long id, Long version) {
+        return id + ":" + version;
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
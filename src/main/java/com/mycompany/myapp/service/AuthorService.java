@@ -4,11 +4,15 @@ import com.mycompany.myapp.domain.Author;
 import com.mycompany.myapp.repository.AuthorRepository;
 import com.mycompany.myapp.service.dto.AuthorDTO;
 import com.mycompany.myapp.service.mapper.AuthorMapper;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,15 +23,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class AuthorService {
 
+    /**
+     * Cache of the authors read by id, as DTOs. Keys are the ids as strings, so that other nodes can evict them.
+     */
+    public static final String AUTHORS_BY_ID_CACHE = "authorsById";
+
     private final Logger log = LoggerFactory.getLogger(AuthorService.class);
 
     private final AuthorRepository authorRepository;
 
     private final AuthorMapper authorMapper;
 
-    public AuthorService(AuthorRepository authorRepository, AuthorMapper authorMapper) {
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final BookService bookService;
+
+    public AuthorService(
+        AuthorRepository authorRepository,
+        AuthorMapper authorMapper,
+        CacheInvalidationService cacheInvalidationService,
+        BookService bookService
+    ) {
         this.authorRepository = authorRepository;
         this.authorMapper = authorMapper;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.bookService = bookService;
     }
 
     /**
@@ -40,27 +60,42 @@ public class AuthorService {
         log.debug("Request to save Author : {}", authorDTO);
         Author author = authorMapper.toEntity(authorDTO);
         author = authorRepository.save(author);
+        cacheInvalidationService.evict(AUTHORS_BY_ID_CACHE, author.getId().toString());
         return authorMapper.toDto(author);
     }
 
     /**
-     * Update a author.
+     * Update a author, provided that it still has the version of the DTO. The author is usually read from the
+     * second-level cache, and its version is incremented by the flush of its changes.
      *
-     * @param authorDTO the entity to save.
-     * @return the persisted entity.
+     * @param authorDTO the entity to save, with its current version.
+     * @return the persisted entity, with its new version, or empty if there is no such author.
+     * @throws ObjectOptimisticLockingFailureException if the author was modified meanwhile.
      */
-    public AuthorDTO update(AuthorDTO authorDTO) {
+    public Optional<AuthorDTO> update(AuthorDTO authorDTO) {
         log.debug("Request to update Author : {}", authorDTO);
-        Author author = authorMapper.toEntity(authorDTO);
-        author = authorRepository.save(author);
-        return authorMapper.toDto(author);
+        return authorRepository
+            .findById(authorDTO.getId())
+            .map(existingAuthor -> {
+                if (!Objects.equals(authorDTO.getVersion(), existingAuthor.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Author.class, existingAuthor.getId());
+                }
+                return existingAuthor.name(authorDTO.getName()).birthDate(authorDTO.getBirthDate());
+            })
+            .map(authorRepository::saveAndFlush)
+            .map(savedAuthor -> {
+                clearAuthorCaches(savedAuthor.getId());
+                return savedAuthor;
+            })
+            .map(authorMapper::toDto);
     }
 
     /**
-     * Partially update a author.
+     * Partially update a author. When the DTO has a version, it must be the current one.
      *
      * @param authorDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version.
+     * @throws ObjectOptimisticLockingFailureException if the author does not have the version of the DTO.
      */
     public Optional<AuthorDTO> partialUpdate(AuthorDTO authorDTO) {
         log.debug("Request to partially update Author : {}", authorDTO);
@@ -68,11 +103,18 @@ public class AuthorService {
         return authorRepository
             .findById(authorDTO.getId())
             .map(existingAuthor -> {
+                if (authorDTO.getVersion() != null && !Objects.equals(authorDTO.getVersion(), existingAuthor.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Author.class, existingAuthor.getId());
+                }
                 authorMapper.partialUpdate(existingAuthor, authorDTO);
 
                 return existingAuthor;
             })
-            .map(authorRepository::save)
+            .map(authorRepository::saveAndFlush)
+            .map(savedAuthor -> {
+                clearAuthorCaches(savedAuthor.getId());
+                return savedAuthor;
+            })
             .map(authorMapper::toDto);
     }
 
@@ -95,6 +137,7 @@ public class AuthorService {
      * @return the entity.
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = AUTHORS_BY_ID_CACHE, key = "#id.toString()", unless = "#result == null")
     public Optional<AuthorDTO> findOne(Long id) {
         log.debug("Request to get Author : {}", id);
         return authorRepository.findById(id).map(authorMapper::toDto);
@@ -108,5 +151,11 @@ public class AuthorService {
     public void delete(Long id) {
         log.debug("Request to delete Author : {}", id);
         authorRepository.deleteById(id);
+        clearAuthorCaches(id);
+    }
+
+    private void clearAuthorCaches(Long id) {
+        cacheInvalidationService.evict(AUTHORS_BY_ID_CACHE, id.toString());
+        bookService.evictBooksOfAuthors(List.of(id));
     }
 }
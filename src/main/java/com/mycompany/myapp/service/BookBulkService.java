@@ -0,0 +1,84 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Author;
+import com.mycompany.myapp.domain.Book;
+import com.mycompany.myapp.repository.BookRepository;
+import com.mycompany.myapp.service.dto.BookDTO;
+import com.mycompany.myapp.service.mapper.BookMapper;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Service for processing the operations of a bulk request on {@link Book}.
+ */
+@Service
+public class BookBulkService extends BulkService<Book, BookDTO> {
+
+    private final BookMapper bookMapper;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public BookBulkService(
+        EntityManager entityManager,
+        BookRepository bookRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        BookMapper bookMapper,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        super(entityManager, bookRepository, transactionManager, applicationProperties.getBulk().getChunkSize());
+        this.bookMapper = bookMapper;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @Override
+    protected Long getId(BookDTO bookDTO) {
+        return bookDTO.getId();
+    }
+
+    @Override
+    protected Long getVersion(BookDTO bookDTO) {
+        return bookDTO.getVersion();
+    }
+
+    @Override
+    protected Long getEntityId(Book book) {
+        return book.getId();
+    }
+
+    @Override
+    protected Long getEntityVersion(Book book) {
+        return book.getVersion();
+    }
+
+    @Override
+    protected Book toEntity(BookDTO bookDTO) {
+        return bookMapper.toEntity(bookDTO).version(null).author(authorReference(bookDTO));
+    }
+
+    @Override
+    protected void update(Book book, BookDTO bookDTO) {
+        book
+            .title(bookDTO.getTitle())
+            .description(bookDTO.getDescription())
+            .publicationDate(bookDTO.getPublicationDate())
+            .price(bookDTO.getPrice())
+            .author(authorReference(bookDTO));
+    }
+
+    @Override
+    protected void evict(Set<Long> ids) {
+        cacheInvalidationService.evictAll(BookService.BOOKS_BY_ID_CACHE, ids.stream().map(Object::toString).collect(Collectors.toList()));
+    }
+
+    private Author authorReference(BookDTO bookDTO) {
+        if (bookDTO.getAuthor() == null || bookDTO.getAuthor().getId() == null) {
+            return null;
+        }
+        return entityManager.getReference(Author.class, bookDTO.getAuthor().getId());
+    }
+}
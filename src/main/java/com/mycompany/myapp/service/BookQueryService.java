@@ -4,38 +4,83 @@ import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.domain.Book;
 import com.mycompany.myapp.repository.BookRepository;
 import com.mycompany.myapp.service.criteria.BookCriteria;
+import com.mycompany.myapp.service.dto.AuthorDTO;
 import com.mycompany.myapp.service.dto.BookDTO;
 import com.mycompany.myapp.service.mapper.BookMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link Book} entities in the database.
  * The main input is a {@link BookCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link BookDTO} or a {@link Page} of {@link BookDTO} which fulfills the criteria.
+ * It returns a {@link List} of {@link BookDTO}, a {@link Page} of {@link BookDTO} or, for keyset pagination,
+ * a {@link Slice} of {@link BookDTO} which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
-public class BookQueryService extends QueryService<Book> {
+public class BookQueryService extends SliceQueryService<Book> {
 
     private final Logger log = LoggerFactory.getLogger(BookQueryService.class);
 
+    private static final String TABLE_NAME = "book";
+
+    private static final Set<String> KEYSET_PROPERTIES = Set.of("id", "title", "publicationDate", "price");
+
+    /**
+     * Rows fetched per round trip by {@link #exportByCriteria}, which is also how many books it keeps attached.
+     */
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final BookRepository bookRepository;
 
     private final BookMapper bookMapper;
 
-    public BookQueryService(BookRepository bookRepository, BookMapper bookMapper) {
+    private final ApproximateCountService approximateCountService;
+
+    public BookQueryService(
+        BookRepository bookRepository,
+        BookMapper bookMapper,
+        EntityManager entityManager,
+        ApproximateCountService approximateCountService
+    ) {
+        super(entityManager, Book.class, BookRepository.QUERY_CACHE_REGION);
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
+        this.approximateCountService = approximateCountService;
     }
 
     /**
@@ -50,6 +95,46 @@ public class BookQueryService extends QueryService<Book> {
         return bookMapper.toDto(bookRepository.findAll(specification));
     }
 
+    /**
+     * Pass each {@link BookDTO} which matches the criteria to a consumer, in id order.
+     * <p>
+     * Unlike {@link #findByCriteria(BookCriteria)}, the books are read through a database cursor, bypass the
+     * second-level cache and are detached as they go, so memory use does not depend on the number of books.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities, called within the read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void exportByCriteria(BookCriteria criteria, Consumer<BookDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        final Specification<Book> specification = createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        root.fetch(Book_.author, JoinType.LEFT);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get(Book_.id)));
+        try (
+            Stream<Book> books = entityManager
+                .createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+        ) {
+            Iterator<Book> iterator = books.iterator();
+            int exported = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(bookMapper.toDto(iterator.next()));
+                if (++exported % EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     /**
      * Return a {@link Page} of {@link BookDTO} which matches the criteria from the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -63,6 +148,156 @@ public class BookQueryService extends QueryService<Book> {
         return bookRepository.findAll(specification, page).map(bookMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link BookDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BookDTO> findSliceByCriteria(BookCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Book> specification = createSpecification(criteria);
+        return findSlice(specification, page).map(bookMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Page} of {@link BookDTO} which matches the criteria from the database, with an approximate total.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     * @see ApproximateCountService
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> findByCriteriaWithApproximateCount(BookCriteria criteria, Pageable page) {
+        log.debug("find by criteria with approximate count : {}, page: {}", criteria, page);
+        final Specification<Book> specification = createSpecification(criteria);
+        Slice<BookDTO> slice = findSlice(specification, page).map(bookMapper::toDto);
+        BookCriteria normalizedCriteria = criteria == null || criteria.equals(new BookCriteria()) ? null : criteria.copy();
+        long total = approximateCountService.count(TABLE_NAME, normalizedCriteria, () -> bookRepository.count(specification));
+        return toPage(slice, total);
+    }
+
+    /**
+     * Return the {@link #versionTag(BookDTO) version tags} of the {@link BookDTO} of a page which matches the criteria,
+     * without loading nor mapping the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, whose entities should be described.
+     * @return the version tags, in page order.
+     */
+    @Transactional(readOnly = true)
+    public List<String> findVersionTagsByCriteria(BookCriteria criteria, Pageable page) {
+        log.debug("find version tags by criteria : {}, page: {}", criteria, page);
+        final Specification<Book> specification = createSpecification(criteria);
+        List<Tuple> tuples = findPageTuples(
+            specification,
+            page,
+            root -> {
+                Join<Book, Author> author = root.join(Book_.author, JoinType.LEFT);
+                return List.<Selection<?>>of(
+                    root.get(Book_.id),
+                    root.get(Book_.version),
+                    author.get(Author_.id),
+                    author.get(Author_.version)
+                );
+            }
+        );
+        return tuples
+            .stream()
+            .map(tuple ->
+                versionTag(tuple.get(0, Long.class), tuple.get(1, Long.class), tuple.get(2, Long.class), tuple.get(3, Long.class))
+            )
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Return the version tag of a book, which changes whenever its representation does, including the name of its
+     * author.
+     * @param book The book.
+     * @return the version tag.
+     */
+    public static String versionTag(BookDTO book) {
+        AuthorDTO author = book.getAuthor();
+        if (author == null) {
+            return versionTag(book.getId(), book.getVersion(), null, null);
+        }
+        return versionTag(book.getId(), book.getVersion(), author.getId(), author.getVersion());
+    }
+
+    private static String versionTag(Long id, Long version, Long authorId, Long authorVersion) {
+        return id + ":" + version + (authorId == null ? "" : ":" + authorId + ":" + authorVersion);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link BookDTO} which matches the criteria from the database, using keyset pagination.
+     * <p>
+     * Instead of an offset, the query seeks past the row described by {@code after}, so deep pages cost the same as the
+     * first one. No count query is issued: one extra row is fetched to know whether there is a next slice.
+     * Rows with a {@code null} sort key are always returned last, whatever the direction.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param order The sort order, on one of {@code id}, {@code title}, {@code publicationDate} or {@code price}.
+     * @param size The maximum number of entities to return.
+     * @param after The cursor of the last entity of the previous slice, or {@code null} for the first slice.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the order is not supported or does not match the cursor.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BookDTO> findByCriteria(BookCriteria criteria, Sort.Order order, int size, KeysetCursor after) {
+        log.debug("find by criteria : {}, order: {}, size: {}, after: {}", criteria, order, size, after);
+        if (!KEYSET_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Keyset pagination is not supported on " + order.getProperty());
+        }
+        if (after != null && (!after.getProperty().equals(order.getProperty()) || after.getDirection() != order.getDirection())) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort order");
+        }
+        BookCriteria keysetCriteria = criteria == null ? new BookCriteria() : criteria.copy();
+        // Book only joins to-one relationships, so rows are already unique and DISTINCT would prevent ordering by expressions
+        keysetCriteria.setDistinct(null);
+        Specification<Book> specification = createSpecification(keysetCriteria);
+        if (after != null) {
+            specification = specification.and(createSeekSpecification(order, after));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(createKeysetOrder(root, cb, order));
+        List<Book> books = cacheable(entityManager.createQuery(query)).setMaxResults(size + 1).getResultList();
+
+        boolean hasNext = books.size() > size;
+        List<BookDTO> content = bookMapper.toDto(hasNext ? books.subList(0, size) : books);
+        return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(order)), hasNext);
+    }
+
+    /**
+     * Create the cursor pointing after the given entity, for the given sort order.
+     * @param last The last entity of a slice.
+     * @param order The sort order the slice was fetched with.
+     * @return the cursor to fetch the next slice.
+     */
+    public KeysetCursor createCursor(BookDTO last, Sort.Order order) {
+        String value;
+        switch (order.getProperty()) {
+            case "title":
+                value = last.getTitle();
+                break;
+            case "publicationDate":
+                value = last.getPublicationDate() == null ? null : last.getPublicationDate().toString();
+                break;
+            case "price":
+                value = last.getPrice() == null ? null : last.getPrice().toPlainString();
+                break;
+            default:
+                value = null;
+        }
+        return new KeysetCursor(order.getProperty(), order.getDirection(), last.getId(), value);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -111,4 +346,61 @@ public class BookQueryService extends QueryService<Book> {
         }
         return specification;
     }
+
+    private Specification<Book> createSeekSpecification(Sort.Order order, KeysetCursor after) {
+        String value = after.getValue();
+        try {
+            switch (order.getProperty()) {
+                case "title":
+                    return createSeekSpecification(Book_.title, value, order, after.getId());
+                case "publicationDate":
+                    return createSeekSpecification(
+                        Book_.publicationDate,
+                        value == null ? null : LocalDate.parse(value),
+                        order,
+                        after.getId()
+                    );
+                case "price":
+                    return createSeekSpecification(Book_.price, value == null ? null : new BigDecimal(value), order, after.getId());
+                default:
+                    return (root, query, cb) -> idAfter(root, cb, order, after.getId());
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private <Y extends Comparable<? super Y>> Specification<Book> createSeekSpecification(
+        SingularAttribute<Book, Y> attribute,
+        Y value,
+        Sort.Order order,
+        Long lastId
+    ) {
+        return (root, query, cb) -> {
+            Path<Y> key = root.get(attribute);
+            if (value == null) {
+                return cb.and(cb.isNull(key), idAfter(root, cb, order, lastId));
+            }
+            Predicate keyAfter = order.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            return cb.or(keyAfter, cb.and(cb.equal(key, value), idAfter(root, cb, order, lastId)), cb.isNull(key));
+        };
+    }
+
+    private Predicate idAfter(Root<Book> root, CriteriaBuilder cb, Sort.Order order, Long lastId) {
+        Path<Long> id = root.get(Book_.id);
+        return order.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+    }
+
+    private List<Order> createKeysetOrder(Root<Book> root, CriteriaBuilder cb, Sort.Order order) {
+        List<Order> orders = new ArrayList<>();
+        if (!"id".equals(order.getProperty())) {
+            Path<Object> key = root.get(order.getProperty());
+            // nulls go last in both directions, so that the seek predicate stays a single range
+            orders.add(cb.asc(cb.<Integer>selectCase().when(cb.isNull(key), 1).otherwise(0)));
+            orders.add(order.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+        Path<Long> id = root.get(Book_.id);
+        orders.add(order.isAscending() ? cb.asc(id) : cb.desc(id));
+        return orders;
+    }
 }
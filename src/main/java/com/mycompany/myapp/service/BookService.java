@@ -1,14 +1,21 @@
 package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.Book;
+import com.mycompany.myapp.repository.AuthorRepository;
 import com.mycompany.myapp.repository.BookRepository;
 import com.mycompany.myapp.service.dto.BookDTO;
 import com.mycompany.myapp.service.mapper.BookMapper;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,15 +26,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class BookService {
 
+    /**
+     * Cache of the books read by id, as DTOs. Keys are the ids as strings, so that other nodes can evict them.
+     */
+    public static final String BOOKS_BY_ID_CACHE = "booksById";
+
     private final Logger log = LoggerFactory.getLogger(BookService.class);
 
     private final BookRepository bookRepository;
 
     private final BookMapper bookMapper;
 
-    public BookService(BookRepository bookRepository, BookMapper bookMapper) {
+    private final AuthorRepository authorRepository;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public BookService(
+        BookRepository bookRepository,
+        BookMapper bookMapper,
+        AuthorRepository authorRepository,
+        CacheInvalidationService cacheInvalidationService
+    ) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
+        this.authorRepository = authorRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     /**
@@ -40,27 +63,48 @@ public class BookService {
         log.debug("Request to save Book : {}", bookDTO);
         Book book = bookMapper.toEntity(bookDTO);
         book = bookRepository.save(book);
+        clearBookCache(book.getId());
         return bookMapper.toDto(book);
     }
 
     /**
-     * Update a book.
+     * Update a book, provided that it still has the version of the DTO. The book is usually read from the second-level
+     * cache, and its version is incremented by the flush of its changes.
      *
-     * @param bookDTO the entity to save.
-     * @return the persisted entity.
+     * @param bookDTO the entity to save, with its current version.
+     * @return the persisted entity, with its new version, or empty if there is no such book.
+     * @throws ObjectOptimisticLockingFailureException if the book was modified meanwhile.
      */
-    public BookDTO update(BookDTO bookDTO) {
+    public Optional<BookDTO> update(BookDTO bookDTO) {
         log.debug("Request to update Book : {}", bookDTO);
-        Book book = bookMapper.toEntity(bookDTO);
-        book = bookRepository.save(book);
-        return bookMapper.toDto(book);
+        return bookRepository
+            .findById(bookDTO.getId())
+            .map(existingBook -> {
+                if (!Objects.equals(bookDTO.getVersion(), existingBook.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Book.class, existingBook.getId());
+                }
+                Long authorId = bookDTO.getAuthor() == null ? null : bookDTO.getAuthor().getId();
+                return existingBook
+                    .title(bookDTO.getTitle())
+                    .description(bookDTO.getDescription())
+                    .publicationDate(bookDTO.getPublicationDate())
+                    .price(bookDTO.getPrice())
+                    .author(authorId == null ? null : authorRepository.getReferenceById(authorId));
+            })
+            .map(bookRepository::saveAndFlush)
+            .map(savedBook -> {
+                clearBookCache(savedBook.getId());
+                return savedBook;
+            })
+            .map(bookMapper::toDto);
     }
 
     /**
-     * Partially update a book.
+     * Partially update a book. When the DTO has a version, it must be the current one.
      *
      * @param bookDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version.
+     * @throws ObjectOptimisticLockingFailureException if the book does not have the version of the DTO.
      */
     public Optional<BookDTO> partialUpdate(BookDTO bookDTO) {
         log.debug("Request to partially update Book : {}", bookDTO);
@@ -68,11 +112,18 @@ public class BookService {
         return bookRepository
             .findById(bookDTO.getId())
             .map(existingBook -> {
+                if (bookDTO.getVersion() != null && !Objects.equals(bookDTO.getVersion(), existingBook.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Book.class, existingBook.getId());
+                }
                 bookMapper.partialUpdate(existingBook, bookDTO);
 
                 return existingBook;
             })
-            .map(bookRepository::save)
+            .map(bookRepository::saveAndFlush)
+            .map(savedBook -> {
+                clearBookCache(savedBook.getId());
+                return savedBook;
+            })
             .map(bookMapper::toDto);
     }
 
@@ -104,6 +155,7 @@ public class BookService {
      * @return the entity.
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = BOOKS_BY_ID_CACHE, key = "#id.toString()", unless = "#result == null")
     public Optional<BookDTO> findOne(Long id) {
         log.debug("Request to get Book : {}", id);
         return bookRepository.findOneWithEagerRelationships(id).map(bookMapper::toDto);
@@ -117,5 +169,20 @@ public class BookService {
     public void delete(Long id) {
         log.debug("Request to delete Book : {}", id);
         bookRepository.deleteById(id);
+        clearBookCache(id);
+    }
+
+    /**
+     * Evict the cached books of authors, as they embed the name of their author.
+     *
+     * @param authorIds the ids of the authors.
+     */
+    public void evictBooksOfAuthors(Collection<Long> authorIds) {
+        List<String> ids = bookRepository.findIdsByAuthorIdIn(authorIds).stream().map(Object::toString).collect(Collectors.toList());
+        cacheInvalidationService.evictAll(BOOKS_BY_ID_CACHE, ids);
+    }
+
+    private void clearBookCache(Long id) {
+        cacheInvalidationService.evict(BOOKS_BY_ID_CACHE, id.toString());
     }
 }
@@ -0,0 +1,224 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.BulkItemResult;
+import com.mycompany.myapp.service.dto.BulkOperation;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base service for processing the operations of a bulk request on an entity.
+ * <p>
+ * Operations are read as they are processed, in chunks: each chunk is processed in its own transaction, loads the
+ * entities it updates or deletes with a single query, and is flushed and cleared once, so that its statements are
+ * sent in JDBC batches. When a chunk fails, its operations are processed again one at a time, so that each one gets
+ * its own result.
+ *
+ * @param <ENTITY> the type of the entity.
+ * @param <DTO> the type of the DTO of the entity.
+ */
+public abstract class BulkService<ENTITY, DTO> {
+
+    private final Logger log = LoggerFactory.getLogger(BulkService.class);
+
+    protected final EntityManager entityManager;
+
+    private final JpaRepository<ENTITY, Long> repository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    protected BulkService(
+        EntityManager entityManager,
+        JpaRepository<ENTITY, Long> repository,
+        PlatformTransactionManager transactionManager,
+        int chunkSize
+    ) {
+        this.entityManager = entityManager;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Process bulk operations, in order.
+     * <p>
+     * When an operation cannot be read, a {@code 400 (Bad Request)} result is added for it and the remaining
+     * operations are not processed, as malformed input cannot be skipped reliably.
+     *
+     * @param operations the operations, read one at a time.
+     * @return the result of each operation, in order.
+     */
+    public List<BulkItemResult> process(Iterator<BulkOperation<DTO>> operations) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<BulkOperation<DTO>> chunk = new ArrayList<>(chunkSize);
+        long index = 0;
+        while (true) {
+            BulkOperation<DTO> operation;
+            try {
+                if (!operations.hasNext()) {
+                    break;
+                }
+                operation = operations.next();
+            } catch (RuntimeException e) {
+                log.debug("Unreadable bulk operation at index {}: {}", index, e.getMessage());
+                results.addAll(processChunk(chunk, index - chunk.size()));
+                results.add(BulkItemResult.failure(index, null, HttpStatus.BAD_REQUEST.value(), null, "invalidoperation"));
+                return results;
+            }
+            chunk.add(operation);
+            index++;
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(chunk, index - chunk.size()));
+                chunk.clear();
+            }
+        }
+        results.addAll(processChunk(chunk, index - chunk.size()));
+        return results;
+    }
+
+    private List<BulkItemResult> processChunk(List<BulkOperation<DTO>> chunk, long firstIndex) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> processInTransaction(chunk, firstIndex));
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            if (chunk.size() > 1) {
+                log.debug("Bulk chunk at index {} failed, processing its operations one at a time: {}", firstIndex, e.getMessage());
+                List<BulkItemResult> results = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.addAll(processChunk(List.of(chunk.get(i)), firstIndex + i));
+                }
+                return results;
+            }
+            log.debug("Bulk operation at index {} failed: {}", firstIndex, e.getMessage());
+            BulkOperation<DTO> operation = chunk.get(0);
+            Long id = operation.getData() == null ? null : getId(operation.getData());
+            return List.of(BulkItemResult.failure(firstIndex, operation.getAction(), HttpStatus.CONFLICT.value(), id, "conflict"));
+        }
+    }
+
+    private List<BulkItemResult> processInTransaction(List<BulkOperation<DTO>> chunk, long firstIndex) {
+        Set<Long> ids = chunk
+            .stream()
+            .filter(operation -> operation.getAction() != BulkOperation.Action.CREATE && operation.getData() != null)
+            .map(operation -> getId(operation.getData()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, ENTITY> existingEntities = ids.isEmpty()
+            ? Map.of()
+            : repository.findAllById(ids).stream().collect(Collectors.toMap(this::getEntityId, Function.identity()));
+
+        Set<Long> modifiedIds = new LinkedHashSet<>();
+        List<Supplier<BulkItemResult>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(apply(chunk.get(i), firstIndex + i, existingEntities, modifiedIds));
+        }
+        // the versions are only incremented when flushed
+        entityManager.flush();
+        List<BulkItemResult> chunkResults = results.stream().map(Supplier::get).collect(Collectors.toList());
+        entityManager.clear();
+        if (!modifiedIds.isEmpty()) {
+            evict(modifiedIds);
+        }
+        return chunkResults;
+    }
+
+    private Supplier<BulkItemResult> apply(
+        BulkOperation<DTO> operation,
+        long index,
+        Map<Long, ENTITY> existingEntities,
+        Set<Long> modifiedIds
+    ) {
+        BulkOperation.Action action = operation.getAction();
+        DTO dto = operation.getData();
+        if (action == null || dto == null) {
+            return failure(index, action, HttpStatus.BAD_REQUEST, null, "invalidoperation");
+        }
+        Long id = getId(dto);
+        if (action == BulkOperation.Action.CREATE) {
+            if (id != null) {
+                return failure(index, action, HttpStatus.BAD_REQUEST, id, "idexists");
+            }
+            ENTITY entity = toEntity(dto);
+            entityManager.persist(entity);
+            return () -> BulkItemResult.success(index, action, HttpStatus.CREATED.value(), getEntityId(entity), getEntityVersion(entity));
+        }
+        if (id == null) {
+            return failure(index, action, HttpStatus.BAD_REQUEST, null, "idnull");
+        }
+        ENTITY entity = existingEntities.get(id);
+        if (entity == null) {
+            return failure(index, action, HttpStatus.NOT_FOUND, id, "idnotfound");
+        }
+        if (action == BulkOperation.Action.DELETE) {
+            // later operations of the chunk on this entity do not find it
+            existingEntities.remove(id);
+            modifiedIds.add(id);
+            entityManager.remove(entity);
+            return () -> BulkItemResult.success(index, action, HttpStatus.NO_CONTENT.value(), id, null);
+        }
+        Long version = getVersion(dto);
+        if (version != null && !version.equals(getEntityVersion(entity))) {
+            return failure(index, action, HttpStatus.CONFLICT, id, "versionmismatch");
+        }
+        update(entity, dto);
+        modifiedIds.add(id);
+        return () -> BulkItemResult.success(index, action, HttpStatus.OK.value(), id, getEntityVersion(entity));
+    }
+
+    private static Supplier<BulkItemResult> failure(long index, BulkOperation.Action action, HttpStatus status, Long id, String error) {
+        BulkItemResult result = BulkItemResult.failure(index, action, status.value(), id, error);
+        return () -> result;
+    }
+
+    protected abstract Long getId(DTO dto);
+
+    protected abstract Long getVersion(DTO dto);
+
+    protected abstract Long getEntityId(ENTITY entity);
+
+    protected abstract Long getEntityVersion(ENTITY entity);
+
+    /**
+     * Create a new entity from a DTO. Its associations must be references to managed entities.
+     *
+     * @param dto the DTO.
+     * @return the new entity, which is not persisted yet.
+     */
+    protected abstract ENTITY toEntity(DTO dto);
+
+    /**
+     * Replace the state of a managed entity by the state of a DTO.
+     *
+     * @param entity the managed entity.
+     * @param dto the DTO.
+     */
+    protected abstract void update(ENTITY entity, DTO dto);
+
+    /**
+     * Evict the cached state of updated or deleted entities, within the transaction which modified them.
+     *
+     * @param ids the ids of the entities.
+     */
+    protected abstract void evict(Set<Long> ids);
+}
@@ -0,0 +1,186 @@
+package com.mycompany.myapp.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Cache eviction broadcast to the other nodes of the cluster through a {@link CacheInvalidationTransport}.
+ * <p>
+ * An invalidation either targets the cached state of one or several entities, or of all the entities of a type, a
+ * single key of a cache, several keys of a cache, a whole cache, or all the caches of a node.
+ * It is exchanged as a {@code origin|KIND|name|key} text payload, several keys being joined with commas.
+ */
+public final class CacheInvalidation {
+
+    public enum Kind {
+        ENTITIES,
+        KEY,
+        KEYS,
+        CACHE,
+        ALL,
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private static final String KEYS_SEPARATOR = ",";
+
+    private static final String ALL_KEYS = "*";
+
+    private final String origin;
+
+    private final Kind kind;
+
+    private final String name;
+
+    private final String key;
+
+    private CacheInvalidation(String origin, Kind kind, String name, String key) {
+        this.origin = Objects.requireNonNull(origin);
+        this.kind = Objects.requireNonNull(kind);
+        this.name = name;
+        this.key = key;
+    }
+
+    /**
+     * @param origin the node publishing the invalidation.
+     * @param entityName the Hibernate entity name.
+     * @param ids the entity identifiers.
+     * @return the invalidation of the entities.
+     * @throws IllegalArgumentException if there is no identifier.
+     */
+    public static CacheInvalidation ofEntities(String origin, String entityName, Collection<?> ids) {
+        return new CacheInvalidation(origin, Kind.ENTITIES, Objects.requireNonNull(entityName), join(entityName, ids));
+    }
+
+    /**
+     * @param origin the node publishing the invalidation.
+     * @param entityName the Hibernate entity name.
+     * @return the invalidation of all the entities of that name.
+     */
+    public static CacheInvalidation ofEntityRegion(String origin, String entityName) {
+        return new CacheInvalidation(origin, Kind.ENTITIES, Objects.requireNonNull(entityName), ALL_KEYS);
+    }
+
+    public static CacheInvalidation ofKey(String origin, String cacheName, Object key) {
+        return new CacheInvalidation(origin, Kind.KEY, Objects.requireNonNull(cacheName), Objects.requireNonNull(key).toString());
+    }
+
+    /**
+     * @param origin the node publishing the invalidation.
+     * @param cacheName the name of the Spring cache.
+     * @param keys the keys, none of them containing a comma once converted with {@code toString()}.
+     * @return the invalidation of the keys.
+     * @throws IllegalArgumentException if there is no key, or if a key contains a comma.
+     */
+    public static CacheInvalidation ofKeys(String origin, String cacheName, Collection<?> keys) {
+        return new CacheInvalidation(origin, Kind.KEYS, Objects.requireNonNull(cacheName), join(cacheName, keys));
+    }
+
+    public static CacheInvalidation ofCache(String origin, String cacheName) {
+        return new CacheInvalidation(origin, Kind.CACHE, Objects.requireNonNull(cacheName), ALL_KEYS);
+    }
+
+    public static CacheInvalidation ofAll(String origin) {
+        return new CacheInvalidation(origin, Kind.ALL, "", "");
+    }
+
+    private static String join(String name, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No key to invalidate in " + name);
+        }
+        StringJoiner joined = new StringJoiner(KEYS_SEPARATOR);
+        for (Object key : keys) {
+            String text = key.toString();
+            if (text.isEmpty() || text.contains(KEYS_SEPARATOR)) {
+                throw new IllegalArgumentException("Invalid key to invalidate in " + name + ": " + text);
+            }
+            joined.add(text);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Decode a payload previously produced by {@link #encode()}.
+     *
+     * @param payload the text payload.
+     * @return the decoded invalidation.
+     * @throws IllegalArgumentException if the payload is not a valid invalidation.
+     */
+    public static CacheInvalidation decode(String payload) {
+        // the key goes last, so it may contain the separator
+        String[] parts = payload.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cache invalidation: " + payload);
+        }
+        Kind kind = Kind.valueOf(parts[1]);
+        if (kind != Kind.ALL && (parts[2].isEmpty() || parts[3].isEmpty())) {
+            throw new IllegalArgumentException("Invalid cache invalidation: " + payload);
+        }
+        return new CacheInvalidation(parts[0], kind, parts[2], parts[3]);
+    }
+
+    public String encode() {
+        return origin + SEPARATOR + kind.name() + SEPARATOR + name + SEPARATOR + key;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the keys of a {@link Kind#KEYS KEYS} or {@link Kind#ENTITIES ENTITIES} invalidation, or the key of the others.
+     */
+    public List<String> getKeys() {
+        return kind == Kind.KEYS || kind == Kind.ENTITIES ? Arrays.asList(key.split(KEYS_SEPARATOR)) : List.of(key);
+    }
+
+    /**
+     * @return whether this {@link Kind#ENTITIES ENTITIES} invalidation targets all the entities of its type.
+     */
+    public boolean isEntityRegion() {
+        return kind == Kind.ENTITIES && ALL_KEYS.equals(key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return origin.equals(that.origin) && kind == that.kind && name.equals(that.name) && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(origin, kind, name, key);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "origin='" + origin + "'" +
+            ", kind=" + kind +
+            ", name='" + name + "'" +
+            ", key='" + key + "'" +
+            "}";
+    }
+}
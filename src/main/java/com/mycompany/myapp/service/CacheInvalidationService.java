@@ -0,0 +1,218 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping the local caches of the cluster nodes consistent.
+ * <p>
+ * Evictions done on this node are published on the {@link CacheInvalidationTransport}, and evictions published by the
+ * other nodes are applied to the local Spring caches and Hibernate second-level cache regions.
+ */
+@Service
+public class CacheInvalidationService {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationTransport transport;
+
+    private final int maxKeys;
+
+    public CacheInvalidationService(
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationTransport transport,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transport = transport;
+        this.maxKeys = applicationProperties.getCache().getInvalidation().getMaxKeys();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        transport.subscribe(this::onInvalidation);
+    }
+
+    /**
+     * Evict a cache entry on this node and on the other nodes.
+     * <p>
+     * Within a transaction, the local entry is evicted again after the commit, in case a concurrent read cached the
+     * previous state in between.
+     * @param cacheName the name of the Spring cache.
+     * @param key the key of the entry, other nodes receive its {@code toString()} value.
+     */
+    public void evict(String cacheName, Object key) {
+        org.springframework.cache.Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        cache.evict(key);
+        afterCommit(() -> cache.evict(key));
+        transport.publish(CacheInvalidation.ofKey(nodeId, cacheName, key));
+    }
+
+    /**
+     * Evict cache entries on this node and on the other nodes, with a single message: the keys, or the whole cache
+     * beyond {@code application.cache.invalidation.max-keys} keys.
+     * <p>
+     * Within a transaction, the local entries are evicted again after the commit, as by {@link #evict(String, Object)}.
+     * @param cacheName the name of the Spring cache.
+     * @param keys the keys of the entries, none of them containing a comma once converted with {@code toString()}.
+     */
+    public void evictAll(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (keys.size() > maxKeys) {
+            clear(cacheName);
+            return;
+        }
+        org.springframework.cache.Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        keys.forEach(cache::evict);
+        afterCommit(() -> keys.forEach(cache::evict));
+        transport.publish(CacheInvalidation.ofKeys(nodeId, cacheName, keys));
+    }
+
+    /**
+     * Clear a cache on this node and on the other nodes.
+     * @param cacheName the name of the Spring cache.
+     */
+    public void clear(String cacheName) {
+        org.springframework.cache.Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        cache.clear();
+        afterCommit(cache::clear);
+        transport.publish(CacheInvalidation.ofCache(nodeId, cacheName));
+    }
+
+    /**
+     * Evict the cached state of entities on the other nodes, after they were modified on this node, with a single
+     * message: the identifiers, or all the entities of that name beyond {@code application.cache.invalidation.max-keys}
+     * identifiers.
+     * @param entityName the Hibernate entity name.
+     * @param ids the entity identifiers.
+     */
+    public void evictEntitiesOnPeers(String entityName, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (ids.size() > maxKeys) {
+            transport.publish(CacheInvalidation.ofEntityRegion(nodeId, entityName));
+        } else {
+            transport.publish(CacheInvalidation.ofEntities(nodeId, entityName, ids));
+        }
+    }
+
+    void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        log.debug("Applying cache invalidation from another node: {}", invalidation);
+        switch (invalidation.getKind()) {
+            case ENTITIES:
+                if (invalidation.isEntityRegion()) {
+                    evictEntityRegion(invalidation.getName());
+                } else {
+                    evictEntities(invalidation.getName(), invalidation.getKeys());
+                }
+                break;
+            case KEY:
+                org.springframework.cache.Cache cache = cacheManager.getCache(invalidation.getName());
+                if (cache != null) {
+                    cache.evict(invalidation.getKey());
+                }
+                break;
+            case KEYS:
+                org.springframework.cache.Cache keysCache = cacheManager.getCache(invalidation.getName());
+                if (keysCache != null) {
+                    invalidation.getKeys().forEach(keysCache::evict);
+                }
+                break;
+            case CACHE:
+                org.springframework.cache.Cache clearedCache = cacheManager.getCache(invalidation.getName());
+                if (clearedCache != null) {
+                    clearedCache.clear();
+                }
+                break;
+            case ALL:
+                // the Hibernate regions are JCache caches too
+                cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+                break;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        }
+    }
+
+    private void evictEntities(String entityName, Collection<String> keys) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityName);
+        Set<String> roles = sessionFactory.getMetamodel().getCollectionRolesByEntityParticipant(entityName);
+        for (String key : keys) {
+            Serializable id = toIdentifier(persister.getIdentifierType().getReturnedClass(), key);
+            sessionFactory.getCache().evictEntityData(entityName, id);
+            if (roles != null) {
+                roles.forEach(role -> sessionFactory.getCache().evictCollectionData(role, id));
+            }
+        }
+        evictQueryRegions(sessionFactory);
+    }
+
+    private void evictEntityRegion(String entityName) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getCache().evictEntityData(entityName);
+        Set<String> roles = sessionFactory.getMetamodel().getCollectionRolesByEntityParticipant(entityName);
+        if (roles != null) {
+            roles.forEach(role -> sessionFactory.getCache().evictCollectionData(role));
+        }
+        evictQueryRegions(sessionFactory);
+    }
+
+    private static void evictQueryRegions(SessionFactoryImplementor sessionFactory) {
+        if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            // the update timestamps are local too: cached query results may be stale
+            sessionFactory.getCache().evictQueryRegions();
+        }
+    }
+
+    private static Serializable toIdentifier(Class<?> identifierType, String key) {
+        if (Long.class.equals(identifierType)) {
+            return Long.valueOf(key);
+        }
+        if (Integer.class.equals(identifierType)) {
+            return Integer.valueOf(key);
+        }
+        if (String.class.equals(identifierType)) {
+            return key;
+        }
+        throw new IllegalArgumentException("Unsupported identifier type: " + identifierType.getName());
+    }
+}
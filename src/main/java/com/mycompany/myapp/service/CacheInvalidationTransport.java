@@ -0,0 +1,15 @@
+package com.mycompany.myapp.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel carrying {@link CacheInvalidation cache invalidations} between the nodes of the cluster.
+ * <p>
+ * Implementations deliver every published invalidation to the subscribers of all the nodes, including the publishing
+ * one, and should only deliver invalidations published in a transaction once it is committed.
+ */
+public interface CacheInvalidationTransport {
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
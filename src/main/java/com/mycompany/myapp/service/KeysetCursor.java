@@ -0,0 +1,125 @@
+package com.mycompany.myapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque position in a keyset (seek) paginated result.
+ * <p>
+ * A cursor holds the sort property and direction it was created for, the sort key of the last returned row and
+ * that row's id, which is used as a tie-breaker. It is exchanged with clients as a URL-safe Base64 token.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = ",";
+
+    private static final String NULL_VALUE = "~";
+
+    private static final String VALUE_PREFIX = "=";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Long id;
+
+    private final String value;
+
+    public KeysetCursor(String property, Sort.Direction direction, Long id, String value) {
+        this.property = Objects.requireNonNull(property);
+        this.direction = Objects.requireNonNull(direction);
+        this.id = Objects.requireNonNull(id);
+        this.value = value;
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static KeysetCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        // the value goes last, so it may contain the separator
+        String[] parts = decoded.split(SEPARATOR, 4);
+        if (parts.length != 4 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+        Long id;
+        try {
+            id = Long.valueOf(parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String value;
+        if (NULL_VALUE.equals(parts[3])) {
+            value = null;
+        } else if (parts[3].startsWith(VALUE_PREFIX)) {
+            value = parts[3].substring(VALUE_PREFIX.length());
+        } else {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new KeysetCursor(parts[0], direction, id, value);
+    }
+
+    public String encode() {
+        String raw =
+            property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + (value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return (
+            property.equals(that.property) && direction == that.direction && id.equals(that.id) && Objects.equals(value, that.value)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, id, value);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", id=" + id +
+            ", value='" + value + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,19 @@
+package com.mycompany.myapp.service;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheInvalidationTransport} for a single node deployment: there is no other node to notify.
+ */
+public class LocalCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        // the local caches are already evicted
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        // nothing will ever be received
+    }
+}
@@ -0,0 +1,345 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends the emails waiting in the {@code outbox_mail} table: on the {@link #EXECUTOR} once the transaction which wrote
+ * them commits, and every {@code application.mail.outbox.interval} for the emails left, such as those to try again.
+ * <p>
+ * The due emails are sent in batches over a single connection to the mail server. A batch is claimed in a short
+ * transaction, which pushes the next attempt of its emails forward by {@code application.mail.outbox.lease}, then sent
+ * outside of any transaction, so that a slow mail server holds neither a database connection nor row locks. A second
+ * short transaction deletes the sent emails and reschedules the failed ones after an exponential backoff, until they
+ * are abandoned. An email may be sent twice if this transaction fails, or if the lease expires while it is sent. The
+ * emails are counted by the {@code mail.outbox.sent} and {@code mail.outbox.failed} meters, the time they waited is
+ * timed by {@code mail.outbox.delay}, and those waiting and those abandoned are gauged by {@code mail.outbox.backlog}
+ * and {@code mail.outbox.abandoned} at each dispatch. The abandoned emails are kept for
+ * {@code application.mail.outbox.abandoned-retention}, to be looked into, then purged every night.
+ */
+@Service
+public class MailOutboxDispatcher implements SchedulingConfigurer {
+
+    public static final String EXECUTOR = "mailExecutor";
+
+    public static final String SENT_METER_NAME = "mail.outbox.sent";
+    public static final String FAILED_METER_NAME = "mail.outbox.failed";
+    public static final String DELAY_METER_NAME = "mail.outbox.delay";
+    public static final String BACKLOG_METER_NAME = "mail.outbox.backlog";
+    public static final String ABANDONED_METER_NAME = "mail.outbox.abandoned";
+
+    private static final int MAXIMUM_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final OutboxMailRepository outboxMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail.Outbox outbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    private final Lock dispatching = new ReentrantLock();
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong abandoned = new AtomicLong();
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter abandonedCounter;
+
+    private final Timer delayTimer;
+
+    public MailOutboxDispatcher(
+        OutboxMailRepository outboxMailRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        @Qualifier(EXECUTOR) Executor executor,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.outbox = applicationProperties.getMail().getOutbox();
+        // the dispatch after a commit must not join the transaction which has just committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.sentCounter = Counter.builder(SENT_METER_NAME).description("Emails sent from the outbox").register(meterRegistry);
+        this.retriedCounter = failedCounterBuilder("retried").register(meterRegistry);
+        this.abandonedCounter = failedCounterBuilder("abandoned").register(meterRegistry);
+        this.delayTimer = Timer.builder(DELAY_METER_NAME).description("Time from the outbox to the mail server").register(meterRegistry);
+        Gauge.builder(BACKLOG_METER_NAME, backlog, AtomicLong::get).description("Emails waiting in the outbox").register(meterRegistry);
+        Gauge
+            .builder(ABANDONED_METER_NAME, abandoned, AtomicLong::get)
+            .description("Emails abandoned in the outbox")
+            .register(meterRegistry);
+    }
+
+    private static Counter.Builder failedCounterBuilder(String outcome) {
+        return Counter.builder(FAILED_METER_NAME).description("Emails which failed to be sent").tag("outcome", outcome);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::dispatch, outbox.getInterval().toMillis());
+    }
+
+    /**
+     * Dispatch the emails on the {@link #EXECUTOR} once the current transaction commits, or right away without one.
+     */
+    public void dispatchAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        wakeUp();
+                    }
+                }
+            );
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::dispatch);
+            } catch (TaskRejectedException e) {
+                wakeUpPending.set(false);
+                log.debug("Emails left to the next dispatch: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send the due emails, batch by batch, unless another thread of this node is sending them: that thread then
+     * dispatches again, for the wake-ups which arrived meanwhile. A dispatch stops after a batch of which no email could
+     * be sent, as the mail server is likely unavailable.
+     *
+     * @return the number of emails sent.
+     */
+    public int dispatch() {
+        int sent = 0;
+        while (dispatching.tryLock()) {
+            try {
+                wakeUpPending.set(false);
+                sent += drain();
+            } finally {
+                dispatching.unlock();
+            }
+            if (!wakeUpPending.get()) {
+                break;
+            }
+        }
+        return sent;
+    }
+
+    private int drain() {
+        int sent = 0;
+        try {
+            List<OutboxMail> batch;
+            int batchSent;
+            do {
+                batch = transactionTemplate.execute(status -> claimBatch());
+                batchSent = sendBatch(batch);
+                sent += batchSent;
+            } while (batch.size() == outbox.getBatchSize() && batchSent > 0);
+            backlog.set(outboxMailRepository.countByNextAttemptAtIsNotNull());
+            abandoned.set(outboxMailRepository.countByNextAttemptAtIsNull());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not dispatch the emails: {}", e.getMessage());
+        }
+        return sent;
+    }
+
+    /**
+     * Abandoned emails should be deleted after {@code application.mail.outbox.abandoned-retention}.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeAbandonedEmails() {
+        Instant createdBefore = Instant.now().minus(outbox.getAbandonedRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxMailRepository.deleteAbandonedCreatedBefore(createdBefore));
+        log.debug("Deleted {} abandoned emails", deleted);
+        abandoned.set(outboxMailRepository.countByNextAttemptAtIsNull());
+    }
+
+    /**
+     * Lease the due emails to this dispatch, by pushing their next attempt forward.
+     */
+    private List<OutboxMail> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxMail> mails = outboxMailRepository.findDueForUpdate(now, PageRequest.of(0, outbox.getBatchSize()));
+        mails.forEach(mail -> mail.setNextAttemptAt(now.plus(outbox.getLease())));
+        return mails;
+    }
+
+    /**
+     * Send a claimed batch outside of any transaction, then delete the sent emails and reschedule the others.
+     *
+     * @return the number of emails sent.
+     */
+    private int sendBatch(List<OutboxMail> mails) {
+        if (mails.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        List<OutboxMail> failed = new ArrayList<>();
+        List<OutboxMail> built = new ArrayList<>(mails.size());
+        List<MimeMessage> messages = new ArrayList<>(mails.size());
+        for (OutboxMail mail : mails) {
+            try {
+                messages.add(createMessage(mail));
+                built.add(mail);
+            } catch (MessagingException e) {
+                failed(mail, e, now, true);
+                failed.add(mail);
+            }
+        }
+        Map<Object, Exception> failures = send(messages);
+        List<Long> sent = new ArrayList<>(built.size());
+        for (int i = 0; i < built.size(); i++) {
+            OutboxMail mail = built.get(i);
+            Exception failure = failures.get(messages.get(i));
+            if (failure == null) {
+                sent.add(mail.getId());
+                delayTimer.record(Duration.between(mail.getCreatedAt(), now));
+            } else {
+                failed(mail, failure, now, false);
+                failed.add(mail);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxMailRepository.deleteAllByIdInBatch(sent);
+            outboxMailRepository.saveAll(failed);
+        });
+        sentCounter.increment(sent.size());
+        log.debug("Sent {} of {} emails", sent.size(), mails.size());
+        return sent.size();
+    }
+
+    private MimeMessage createMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    /**
+     * Send the messages over a single connection.
+     *
+     * @return the exception of each message which could not be sent.
+     */
+    private Map<Object, Exception> send(List<MimeMessage> messages) {
+        if (messages.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            javaMailSender.send(messages.toArray(new MimeMessage[0]));
+            return Map.of();
+        } catch (MailSendException e) {
+            Map<Object, Exception> failures = e.getFailedMessages();
+            return failures == null || failures.isEmpty() ? allFailed(messages, e) : failures;
+        } catch (MailException e) {
+            return allFailed(messages, e);
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(List<MimeMessage> messages, Exception e) {
+        Map<Object, Exception> failures = new HashMap<>();
+        messages.forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private void failed(OutboxMail mail, Exception e, Instant now, boolean permanent) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(StringUtils.abbreviate(e.toString(), MAXIMUM_ERROR_LENGTH));
+        if (permanent || attempts >= outbox.getMaxAttempts()) {
+            mail.setNextAttemptAt(null);
+            abandonedCounter.increment();
+            log.warn("Email could not be sent to '{}' after {} attempts, abandoned: {}", mail.getRecipient(), attempts, e.getMessage());
+        } else {
+            mail.setNextAttemptAt(now.plus(backoff(attempts)));
+            retriedCounter.increment();
+            log.debug(
+                "Email could not be sent to '{}', to try again at {}: {}",
+                mail.getRecipient(),
+                mail.getNextAttemptAt(),
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * @param attempts the attempts made so far.
+     * @return the delay before the next attempt: the initial backoff, doubled after each attempt but the first.
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = outbox.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(outbox.getMaxBackoff()) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(outbox.getMaxBackoff()) < 0 ? backoff : outbox.getMaxBackoff();
+    }
+}
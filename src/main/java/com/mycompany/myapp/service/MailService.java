@@ -1,57 +1,45 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.domain.OutboxMail;
 import com.mycompany.myapp.domain.User;
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import com.mycompany.myapp.repository.OutboxMailRepository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
-import tech.jhipster.config.JHipsterProperties;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The emails are rendered by the {@link MailTemplateRenderer} and written to the {@code outbox_mail} table in the
+ * transaction of the caller, so that they are sent if and only if it commits, by the {@link MailOutboxDispatcher}.
  */
 @Service
+@Transactional
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private static final String BASE_URL = "baseUrl";
+    private final OutboxMailRepository outboxMailRepository;
 
-    private final JHipsterProperties jHipsterProperties;
-
-    private final JavaMailSender javaMailSender;
-
-    private final MessageSource messageSource;
-
-    private final SpringTemplateEngine templateEngine;
+    private final MailOutboxDispatcher mailOutboxDispatcher;
 
     public MailService(
-        JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        MailTemplateRenderer mailTemplateRenderer,
+        OutboxMailRepository outboxMailRepository,
+        MailOutboxDispatcher mailOutboxDispatcher
     ) {
-        this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailOutboxDispatcher = mailOutboxDispatcher;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
@@ -62,49 +50,66 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        OutboxMail mail = new OutboxMail();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setContent(content);
+        mail.setMultipart(isMultipart);
+        mail.setHtml(isHtml);
+        queue(List.of(mail));
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        queue(List.of(mailTemplateRenderer.render(user, templateName, titleKey)));
+    }
+
+    /**
+     * Send the same email to users, rendered as a batch and written to the outbox at once, e.g. when onboarding them.
+     *
+     * @param users the users, those without an email are skipped.
+     * @param templateName the name of the template of the content.
+     * @param titleKey the message key of the subject.
+     */
+    public void sendEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        List<User> recipients = users.stream().filter(user -> user.getEmail() != null).collect(Collectors.toList());
+        if (recipients.size() < users.size()) {
+            log.debug("Email doesn't exist for {} users", users.size() - recipients.size());
+        }
+        if (!recipients.isEmpty()) {
+            queue(mailTemplateRenderer.renderAll(recipients, templateName, titleKey));
+        }
+    }
+
+    private void queue(List<OutboxMail> mails) {
+        Instant now = Instant.now();
+        for (OutboxMail mail : mails) {
+            mail.setCreatedAt(now);
+            mail.setNextAttemptAt(now);
+        }
+        outboxMailRepository.saveAll(mails);
+        mailOutboxDispatcher.dispatchAfterCommit();
+        log.debug("Queued {} emails", mails.size());
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
+    public void sendCreationEmails(Collection<User> users) {
+        log.debug("Sending creation emails to {} users", users.size());
+        sendEmailsFromTemplate(users, "mail/creationEmail", "email.activation.title");
+    }
+
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
@@ -0,0 +1,202 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.domain.User;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders the emails of the users from their Thymeleaf template, in the language of each user.
+ * <p>
+ * When {@code spring.thymeleaf.cache} is enabled, the template engine keeps the parsed templates, whatever the
+ * language: they are all rendered once at startup, and the messages of each language are loaded, so that the first
+ * emails pay for neither. The subject of each template is then resolved once per language of the messages, while the
+ * other languages of the users fall back to the message source. Each email is rendered into a writer of the length of
+ * the largest email rendered from its template so far, so that the writer is not grown while rendering, and a batch of
+ * users is rendered with one context per language.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final String TEMPLATES_PATTERN = "classpath*:templates/mail/*.html";
+
+    private static final String MESSAGES_PATTERN = "classpath*:i18n/messages_*.properties";
+
+    private static final String WARM_UP_MESSAGE_KEY = "email.signature";
+
+    private static final int INITIAL_CONTENT_LENGTH = 4096;
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    private final boolean cached;
+
+    /**
+     * The subjects by message key, only for the languages of the messages found at startup.
+     */
+    private final Map<Locale, Map<String, String>> subjects = new ConcurrentHashMap<>();
+
+    /**
+     * The length of the largest email rendered so far, by template name.
+     */
+    private final Map<String, Integer> contentLengths = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        this.cached = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Render the email of a user.
+     *
+     * @param user the user, the recipient of the email.
+     * @param templateName the name of the template of the content.
+     * @param titleKey the message key of the subject.
+     * @return the email, to be sent as HTML.
+     */
+    public OutboxMail render(User user, String templateName, String titleKey) {
+        Locale locale = locale(user);
+        return render(user, templateName, titleKey, locale, newContext(locale));
+    }
+
+    /**
+     * Render the emails of users, with the same template.
+     *
+     * @param users the users, the recipients of the emails, all with an email.
+     * @param templateName the name of the template of the content.
+     * @param titleKey the message key of the subject.
+     * @return the emails, in the order of the users, to be sent as HTML.
+     */
+    public List<OutboxMail> renderAll(Collection<User> users, String templateName, String titleKey) {
+        Map<Locale, Context> contexts = new HashMap<>();
+        List<OutboxMail> mails = new ArrayList<>(users.size());
+        for (User user : users) {
+            Locale locale = locale(user);
+            mails.add(render(user, templateName, titleKey, locale, contexts.computeIfAbsent(locale, this::newContext)));
+        }
+        return mails;
+    }
+
+    private OutboxMail render(User user, String templateName, String titleKey, Locale locale, Context context) {
+        context.setVariable(USER, user);
+        OutboxMail mail = new OutboxMail();
+        mail.setRecipient(user.getEmail());
+        mail.setSubject(subject(titleKey, locale));
+        mail.setContent(process(templateName, context));
+        mail.setHtml(true);
+        return mail;
+    }
+
+    private Context newContext(Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(BASE_URL, baseUrl);
+        return context;
+    }
+
+    private static Locale locale(User user) {
+        return Locale.forLanguageTag(user.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : user.getLangKey());
+    }
+
+    private String subject(String titleKey, Locale locale) {
+        Map<String, String> localeSubjects = subjects.get(locale);
+        if (localeSubjects == null) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return localeSubjects.computeIfAbsent(titleKey, key -> messageSource.getMessage(key, null, locale));
+    }
+
+    private String process(String templateName, Context context) {
+        int contentLength = contentLengths.getOrDefault(templateName, INITIAL_CONTENT_LENGTH);
+        StringWriter writer = new StringWriter(contentLength);
+        templateEngine.process(templateName, context, writer);
+        String content = writer.toString();
+        if (content.length() > contentLength) {
+            contentLengths.merge(templateName, content.length(), Math::max);
+        }
+        return content;
+    }
+
+    /**
+     * Parse the templates of the emails, and load the messages of each language, before the first email is sent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!cached) {
+            return;
+        }
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Set<String> templateNames = new LinkedHashSet<>();
+        Set<Locale> locales = new LinkedHashSet<>();
+        try {
+            for (Resource template : resolver.getResources(TEMPLATES_PATTERN)) {
+                templateNames.add("mail/" + baseName(template));
+            }
+            for (Resource messages : resolver.getResources(MESSAGES_PATTERN)) {
+                locales.add(Locale.forLanguageTag(baseName(messages).substring("messages_".length()).replace('_', '-')));
+            }
+        } catch (IOException e) {
+            log.warn("Could not list the email templates: {}", e.getMessage());
+            return;
+        }
+        for (Locale locale : locales) {
+            messageSource.getMessage(WARM_UP_MESSAGE_KEY, null, "", locale);
+            subjects.putIfAbsent(locale, new ConcurrentHashMap<>());
+        }
+        User user = new User();
+        user.setLogin("warm-up");
+        Context context = newContext(Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE));
+        context.setVariable(USER, user);
+        for (String templateName : templateNames) {
+            try {
+                process(templateName, context);
+            } catch (RuntimeException e) {
+                log.warn("Could not render the email template {} at startup: {}", templateName, e.getMessage());
+            }
+        }
+        log.debug("Rendered the email templates {}, and loaded the messages in {}", templateNames, locales);
+    }
+
+    private static String baseName(Resource resource) {
+        String filename = resource.getFilename();
+        return filename.substring(0, filename.lastIndexOf('.'));
+    }
+}
@@ -0,0 +1,170 @@
+package com.mycompany.myapp.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link CacheInvalidationTransport} based on the PostgreSQL {@code LISTEN}/{@code NOTIFY} mechanism.
+ * <p>
+ * Notifications are sent with {@code pg_notify} in the current transaction, or in a new one: PostgreSQL only delivers
+ * them once that transaction is committed, and drops them on rollback. A connection opened outside of the pool listens
+ * to the channel, since it is held for as long as the application runs; subscribing waits until it listens. When it
+ * has to be reopened, subscribers are sent an {@link CacheInvalidation.Kind#ALL ALL} invalidation, since the
+ * notifications sent in the meantime are lost.
+ */
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport, DisposableBean {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String NOTIFY_QUERY = "select pg_notify(?, ?)";
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final Logger log = LoggerFactory.getLogger(PostgresCacheInvalidationTransport.class);
+
+    private final DataSource listenerDataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String channel;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch listening = new CountDownLatch(1);
+
+    private Thread listener;
+
+    private volatile boolean running;
+
+    /**
+     * @param listenerDataSource the source of the connection listening to the channel, which should not be pooled.
+     * @param jdbcTemplate the template sending the notifications.
+     * @param transactionTemplate the transaction of the notifications sent outside of one.
+     * @param channel the notification channel.
+     */
+    public PostgresCacheInvalidationTransport(
+        DataSource listenerDataSource,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        String channel
+    ) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.listenerDataSource = listenerDataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.queryForList(NOTIFY_QUERY, channel, invalidation.encode()));
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+        if (listener == null) {
+            running = true;
+            listener = new Thread(this::listen, "cache-invalidation-listener");
+            listener.setDaemon(true);
+            listener.start();
+            awaitListening();
+        }
+    }
+
+    private void awaitListening() {
+        try {
+            if (!listening.await(RECONNECT_DELAY_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.warn("Not yet listening to cache invalidations on channel {}", channel);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(RECONNECT_DELAY_MILLIS);
+            listener = null;
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.debug("Listening to cache invalidations on channel {}", channel);
+                listening.countDown();
+                if (reconnecting) {
+                    dispatch(CacheInvalidation.ofAll(channel));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Cache invalidation listener connection failed, reconnecting: {}", e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = CacheInvalidation.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid cache invalidation: {}", payload);
+            return;
+        }
+        dispatch(invalidation);
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Could not apply cache invalidation {}: {}", invalidation, e.getMessage());
+            }
+        }
+    }
+}
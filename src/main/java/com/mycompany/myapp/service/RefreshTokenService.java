@@ -0,0 +1,250 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.RefreshToken;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.RefreshTokenRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.AuthorityRegistry;
+import com.mycompany.myapp.security.BloomFilter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the rotating refresh tokens.
+ * <p>
+ * A refresh token is {@code <series>.<secret>}: its series is the key of its row, which only keeps the SHA-256 hash of
+ * the current secret. Each refresh replaces the secret, so a refresh token presented again is a stolen or replayed one,
+ * and revokes its whole series. Revoked series are also kept in an in-memory {@link BloomFilter}, so that they are
+ * rejected without a query; the table stays the authority, as a revoked series has no row any more.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int SERIES_LENGTH = 16;
+
+    private static final int SECRET_LENGTH = 32;
+
+    private static final char SEPARATOR = '.';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.Security.RefreshToken properties;
+
+    private volatile BloomFilter revokedSeries;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getSecurity().getRefreshToken();
+        this.revokedSeries = newRevocationFilter();
+    }
+
+    /**
+     * Start a new series of refresh tokens for a user who just logged in.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the series lasts for the "remember me" validity.
+     * @return the first refresh token of the series.
+     */
+    public String create(String login, boolean rememberMe) {
+        User user = userRepository.findOneByLogin(login).orElseThrow(() -> new IllegalStateException("User " + login + " not found"));
+        String series = randomString(SERIES_LENGTH);
+        String secret = randomString(SECRET_LENGTH);
+        Duration validity = rememberMe ? properties.getValidityForRememberMe() : properties.getValidity();
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setSeries(series);
+        refreshToken.setTokenHash(hash(secret));
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plus(validity));
+        refreshTokenRepository.save(refreshToken);
+        log.debug("Created refresh token series {} for user {}", series, login);
+        return series + SEPARATOR + secret;
+    }
+
+    /**
+     * Exchange a refresh token for the next one of its series. The refresh token is rejected if it is malformed,
+     * expired, revoked, not the current one of its series, or if its user is deactivated; a refresh token which is no
+     * longer the current one of its series revokes the series.
+     *
+     * @param token the refresh token.
+     * @return the authentication of the user and the next refresh token, or empty if the refresh token is rejected.
+     */
+    public Optional<Rotation> rotate(String token) {
+        int separator = token.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String series = token.substring(0, separator);
+        if (revokedSeries.mightContain(series)) {
+            log.debug("Rejected refresh token of revoked series {}", series);
+            return Optional.empty();
+        }
+        Optional<RefreshToken> found = refreshTokenRepository.findOneWithUserBySeries(series);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken refreshToken = found.get();
+        String tokenHash = hash(token.substring(separator + 1));
+        if (!isCurrentHash(refreshToken, tokenHash)) {
+            log.warn("Refresh token of series {} presented again, revoking the series", series);
+            revoke(refreshToken);
+            return Optional.empty();
+        }
+        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            refreshTokenRepository.deleteBySeries(series);
+            return Optional.empty();
+        }
+        User user = refreshToken.getUser();
+        if (!user.isActivated()) {
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = user
+            .getAuthorities()
+            .stream()
+            .map(authority -> AuthorityRegistry.of(authority.getName()))
+            .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            new org.springframework.security.core.userdetails.User(user.getLogin(), "", authorities),
+            null,
+            authorities
+        );
+
+        String secret = randomString(SECRET_LENGTH);
+        if (refreshTokenRepository.updateTokenHash(refreshToken.getId(), tokenHash, hash(secret)) == 0) {
+            // a concurrent refresh with the same token won the race
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(authentication, series + SEPARATOR + secret));
+    }
+
+    /**
+     * Revoke the series of a refresh token, when its user logs out.
+     *
+     * @param token the refresh token.
+     */
+    public void revoke(String token) {
+        int separator = token.indexOf(SEPARATOR);
+        if (separator > 0) {
+            String series = token.substring(0, separator);
+            refreshTokenRepository
+                .findOneWithUserBySeries(series)
+                .filter(refreshToken -> isCurrentHash(refreshToken, hash(token.substring(separator + 1))))
+                .ifPresent(this::revoke);
+        }
+    }
+
+    /**
+     * Revoke every series of a user, when their password changes or they are deleted.
+     *
+     * @param user the user.
+     */
+    public void revokeAll(User user) {
+        List<String> series = refreshTokenRepository.findSeriesByUserId(user.getId());
+        if (!series.isEmpty()) {
+            series.forEach(revokedSeries::put);
+            refreshTokenRepository.deleteByUserId(user.getId());
+            log.debug("Revoked {} refresh token series of user {}", series.size(), user.getLogin());
+        }
+    }
+
+    /**
+     * Expired refresh tokens should be deleted.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am). The revocation filter is reset at the same time, before
+     * it fills up: the revoked series have no row, so they are still rejected.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+        revokedSeries = newRevocationFilter();
+    }
+
+    private void revoke(RefreshToken refreshToken) {
+        revokedSeries.put(refreshToken.getSeries());
+        refreshTokenRepository.deleteBySeries(refreshToken.getSeries());
+    }
+
+    private static boolean isCurrentHash(RefreshToken refreshToken, String tokenHash) {
+        // constant time, not to leak the hash of the current token
+        return MessageDigest.isEqual(
+            tokenHash.getBytes(StandardCharsets.US_ASCII),
+            refreshToken.getTokenHash().getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+
+    private BloomFilter newRevocationFilter() {
+        return new BloomFilter(
+            properties.getRevocationFilterExpectedInsertions(),
+            properties.getRevocationFilterFalsePositiveProbability()
+        );
+    }
+
+    private String randomString(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    private static String hash(String secret) {
+        try {
+            return ENCODER.encodeToString(MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The result of a refresh: the authentication to issue an access token for, and the next refresh token.
+     */
+    public static class Rotation {
+
+        private final Authentication authentication;
+
+        private final String refreshToken;
+
+        Rotation(Authentication authentication, String refreshToken) {
+            this.authentication = authentication;
+            this.refreshToken = refreshToken;
+        }
+
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mycompany.myapp.service;
+
+import java.util.List;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Base service for executing complex queries which do not need to know the total number of matching entities.
+ * <p>
+ * Spring Data always runs a {@code count} query to build a {@link org.springframework.data.domain.Page}; the queries
+ * built here fetch one extra row instead, which is enough to know whether there is a next {@link Slice}.
+ * <p>
+ * Like the criteria queries of the entity repositories, they are cached in the entity query cache region when the
+ * Hibernate query cache is enabled.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+@Transactional(readOnly = true)
+public abstract class SliceQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    protected final EntityManager entityManager;
+
+    private final Class<ENTITY> domainClass;
+
+    private final String queryCacheRegion;
+
+    protected SliceQueryService(EntityManager entityManager, Class<ENTITY> domainClass, String queryCacheRegion) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.queryCacheRegion = queryCacheRegion;
+    }
+
+    /**
+     * Return a {@link Slice} of the entities which match the specification, without counting them.
+     * @param specification The specification the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    protected Slice<ENTITY> findSlice(Specification<ENTITY> specification, Pageable page) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = cb.createQuery(domainClass);
+        Root<ENTITY> root = query.from(domainClass);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (page.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(page.getSort(), root, cb));
+        }
+        TypedQuery<ENTITY> typedQuery = cacheable(entityManager.createQuery(query));
+        if (page.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), page, false);
+        }
+        List<ENTITY> content = typedQuery.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize() + 1).getResultList();
+        boolean hasNext = content.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, page.getPageSize()) : content, page, hasNext);
+    }
+
+    /**
+     * Select some attributes of the entities of a page which match the specification, without loading the entities.
+     * <p>
+     * The entity query services only join to-one associations, so no {@code distinct} is needed: it is dropped, as
+     * PostgreSQL would reject ordering a distinct projection by attributes which are not selected.
+     * @param specification The specification the entities should match.
+     * @param page The page, whose entities should be returned.
+     * @param selection The attributes to select, from the query root.
+     * @return one tuple per entity, in page order.
+     */
+    protected List<Tuple> findPageTuples(
+        Specification<ENTITY> specification,
+        Pageable page,
+        Function<Root<ENTITY>, List<Selection<?>>> selection
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ENTITY> root = query.from(domainClass);
+        query.multiselect(selection.apply(root));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.distinct(false);
+        if (page.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(page.getSort(), root, cb));
+        }
+        TypedQuery<Tuple> typedQuery = cacheable(entityManager.createQuery(query));
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Mark a query as cacheable in the entity query cache region. This has no effect unless the Hibernate query cache
+     * is enabled.
+     * @param query The query.
+     * @param <T> the type of the query result.
+     * @return the same query.
+     */
+    protected <T> TypedQuery<T> cacheable(TypedQuery<T> query) {
+        return query.setHint(QueryHints.HINT_CACHEABLE, true).setHint(QueryHints.HINT_CACHE_REGION, queryCacheRegion);
+    }
+
+    /**
+     * Turn a {@link Slice} into a {@link Page}, using a total which was computed separately and may be approximate.
+     * The total is raised if needed, so that it never announces fewer entities than those already fetched.
+     * @param slice The fetched slice.
+     * @param total The separately computed total.
+     * @param <T> the type of the slice content.
+     * @return the page.
+     */
+    protected static <T> Page<T> toPage(Slice<T> slice, long total) {
+        if (slice.getPageable().isUnpaged()) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), slice.getNumberOfElements());
+        }
+        long known = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(total, known));
+    }
+}
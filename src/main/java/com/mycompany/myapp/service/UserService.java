@@ -7,6 +7,7 @@ import com.mycompany.myapp.repository.AuthorityRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.security.jwt.TokenRevocationService;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.service.dto.UserDTO;
 import java.time.Instant;
@@ -15,10 +16,11 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,7 +31,7 @@ import tech.jhipster.security.RandomUtil;
  */
 @Service
 @Transactional
-public class UserService {
+public class UserService implements UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
@@ -39,18 +41,30 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final MailService mailService;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheInvalidationService cacheInvalidationService,
+        RefreshTokenService refreshTokenService,
+        TokenRevocationService tokenRevocationService,
+        MailService mailService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.mailService = mailService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -76,6 +90,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeAll(user);
                 this.clearUserCaches(user);
                 return user;
             });
@@ -89,6 +104,7 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -131,6 +147,7 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        mailService.sendActivationEmail(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -146,6 +163,30 @@ public class UserService {
     }
 
     public User createUser(AdminUserDTO userDTO) {
+        User user = newUser(userDTO);
+        userRepository.save(user);
+        this.clearUserCaches(user);
+        mailService.sendCreationEmail(user);
+        log.debug("Created Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * Create users at once, e.g. when onboarding them, and send them their creation emails as a batch.
+     *
+     * @param userDTOs the users to create, whose login and email are not used yet.
+     * @return the created users, in order.
+     */
+    public List<User> createUsers(List<AdminUserDTO> userDTOs) {
+        List<User> users = userDTOs.stream().map(this::newUser).collect(Collectors.toList());
+        userRepository.saveAll(users);
+        users.forEach(this::clearUserCaches);
+        mailService.sendCreationEmails(users);
+        log.debug("Created Information for {} Users", users.size());
+        return users;
+    }
+
+    private User newUser(AdminUserDTO userDTO) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
@@ -174,14 +215,12 @@ public class UserService {
                 .collect(Collectors.toSet());
             user.setAuthorities(authorities);
         }
-        userRepository.save(user);
-        this.clearUserCaches(user);
-        log.debug("Created Information for User: {}", user);
         return user;
     }
 
     /**
-     * Update all information for a specific user, and return the modified user.
+     * Update all information for a specific user, and return the modified user. The tokens of the user are revoked if
+     * they are deactivated, or if their login or authorities change.
      *
      * @param userDTO user to update.
      * @return updated user.
@@ -193,6 +232,9 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                String previousLogin = user.getLogin();
+                boolean wasActivated = user.isActivated();
+                Set<String> previousAuthorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -211,6 +253,18 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
+                boolean deactivated = wasActivated && !user.isActivated();
+                if (
+                    deactivated ||
+                    !previousLogin.equals(user.getLogin()) ||
+                    !previousAuthorities.equals(managedAuthorities.stream().map(Authority::getName).collect(Collectors.toSet()))
+                ) {
+                    // the refresh tokens of an active user get access tokens with the new login and authorities
+                    tokenRevocationService.revoke(previousLogin);
+                }
+                if (deactivated) {
+                    refreshTokenService.revokeAll(user);
+                }
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -222,6 +276,8 @@ public class UserService {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
+                tokenRevocationService.revoke(user.getLogin());
+                refreshTokenService.revokeAll(user);
                 userRepository.delete(user);
                 this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
@@ -266,11 +322,31 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeAll(user);
                 this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Store the password of a user, hashed again after a successful login because its hash is outdated.
+     *
+     * @param userDetails the authenticated user.
+     * @param newPassword the new hash of the password.
+     * @return the user, with the new hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                this.clearUserCaches(user);
+                log.debug("Rehashed password for User: {}", user);
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
@@ -317,9 +393,11 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        cacheInvalidationService.evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
+        cacheInvalidationService.evict(UserRepository.UNKNOWN_LOGINS_CACHE, user.getLogin());
         if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            cacheInvalidationService.evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
+            cacheInvalidationService.evict(UserRepository.UNKNOWN_EMAILS_CACHE, user.getEmail());
         }
     }
 }
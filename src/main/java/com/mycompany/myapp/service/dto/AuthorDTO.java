@@ -12,6 +12,8 @@ public class AuthorDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String name;
 
     private LocalDate birthDate;
@@ -24,6 +26,14 @@ public class AuthorDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -66,6 +76,7 @@ public class AuthorDTO implements Serializable {
     public String toString() {
         return "AuthorDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             ", birthDate='" + getBirthDate() + "'" +
             "}";
@@ -13,6 +13,8 @@ public class BookDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     private String title;
 
     private String description;
@@ -31,6 +33,14 @@ public class BookDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -97,6 +107,7 @@ public class BookDTO implements Serializable {
     public String toString() {
         return "BookDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", publicationDate='" + getPublicationDate() + "'" +
@@ -0,0 +1,82 @@
+package com.mycompany.myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * The result of an operation of a bulk request.
+ * <p>
+ * The status is the one the equivalent single-entity request would have answered, and the error is an error key like
+ * those of {@code BadRequestAlertException}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long index;
+
+    private final BulkOperation.Action action;
+
+    private final int status;
+
+    private final Long id;
+
+    private final Long version;
+
+    private final String error;
+
+    private BulkItemResult(long index, BulkOperation.Action action, int status, Long id, Long version, String error) {
+        this.index = index;
+        this.action = action;
+        this.status = status;
+        this.id = id;
+        this.version = version;
+        this.error = error;
+    }
+
+    public static BulkItemResult success(long index, BulkOperation.Action action, int status, Long id, Long version) {
+        return new BulkItemResult(index, action, status, id, version, null);
+    }
+
+    public static BulkItemResult failure(long index, BulkOperation.Action action, int status, Long id, String error) {
+        return new BulkItemResult(index, action, status, id, null, error);
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public BulkOperation.Action getAction() {
+        return action;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResult{" +
+            "index=" + index +
+            ", action=" + action +
+            ", status=" + status +
+            ", id=" + id +
+            ", version=" + version +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
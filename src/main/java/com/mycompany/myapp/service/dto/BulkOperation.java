@@ -0,0 +1,54 @@
+package com.mycompany.myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+
+/**
+ * An operation of a bulk request: the creation, update or deletion of an entity.
+ * <p>
+ * The data of a deletion only needs the id of the entity.
+ *
+ * @param <T> the type of the DTO of the entity.
+ */
+public class BulkOperation<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Action {
+        @JsonProperty("create")
+        CREATE,
+        @JsonProperty("update")
+        UPDATE,
+        @JsonProperty("delete")
+        DELETE,
+    }
+
+    private Action action;
+
+    private T data;
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkOperation{" +
+            "action=" + action +
+            ", data=" + data +
+            "}";
+    }
+}
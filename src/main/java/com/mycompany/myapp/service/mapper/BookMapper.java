@@ -17,6 +17,7 @@ public interface BookMapper extends EntityMapper<BookDTO, Book> {
     @Named("authorName")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
+    @Mapping(target = "version", source = "version")
     @Mapping(target = "name", source = "name")
     AuthorDTO toDtoAuthorName(Author author);
 }
@@ -1,25 +1,42 @@
 package com.mycompany.myapp.web.rest;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.mycompany.myapp.repository.AuthorRepository;
+import com.mycompany.myapp.service.AuthorBulkService;
 import com.mycompany.myapp.service.AuthorQueryService;
 import com.mycompany.myapp.service.AuthorService;
 import com.mycompany.myapp.service.criteria.AuthorCriteria;
 import com.mycompany.myapp.service.dto.AuthorDTO;
+import com.mycompany.myapp.service.dto.BulkItemResult;
+import com.mycompany.myapp.service.dto.BulkOperation;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
+import com.mycompany.myapp.web.rest.util.ETagUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -44,10 +61,22 @@ public class AuthorResource {
 
     private final AuthorQueryService authorQueryService;
 
-    public AuthorResource(AuthorService authorService, AuthorRepository authorRepository, AuthorQueryService authorQueryService) {
+    private final AuthorBulkService authorBulkService;
+
+    private final ObjectReader bulkOperationReader;
+
+    public AuthorResource(
+        AuthorService authorService,
+        AuthorRepository authorRepository,
+        AuthorQueryService authorQueryService,
+        AuthorBulkService authorBulkService,
+        ObjectMapper objectMapper
+    ) {
         this.authorService = authorService;
         this.authorRepository = authorRepository;
         this.authorQueryService = authorQueryService;
+        this.authorBulkService = authorBulkService;
+        this.bulkOperationReader = objectMapper.readerFor(new TypeReference<BulkOperation<AuthorDTO>>() {});
     }
 
     /**
@@ -70,19 +99,48 @@ public class AuthorResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /authors/_bulk} : Create, update and delete authors in bulk.
+     * <p>
+     * The body is a JSON array, or newline-delimited JSON, of operations like
+     * {@code {"action": "update", "data": {...}}}, where the action is {@code create}, {@code update} or {@code delete}.
+     * It is read while the operations are processed, in chunks of {@code application.bulk.chunk-size} operations with
+     * a transaction each. An update replaces the author, and is rejected if the data has another version than the author.
+     *
+     * @param request the request, whose body holds the operations.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation, in order:
+     * the status of the equivalent single-author request, the id and version of the author, or an error key.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/authors/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResult>> bulkAuthors(HttpServletRequest request) throws IOException {
+        log.debug("REST request to process Authors in bulk");
+        try (MappingIterator<BulkOperation<AuthorDTO>> operations = bulkOperationReader.readValues(request.getInputStream())) {
+            return ResponseEntity.ok().body(authorBulkService.process(operations));
+        }
+    }
+
     /**
      * {@code PUT  /authors/:id} : Updates an existing author.
      *
+     * <p>
+     * With an {@code If-Match} header, the author is only updated if it still has one of the given entity tags. Without
+     * it, the version of the authorDTO is checked when there is one, otherwise the last write wins.
+     *
      * @param id the id of the authorDTO to save.
+     * @param ifMatch the entity tags the author must still have, if any.
      * @param authorDTO the authorDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated authorDTO,
-     * or with status {@code 400 (Bad Request)} if the authorDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the authorDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the author was modified meanwhile,
+     * or with status {@code 412 (Precondition Failed)} if the author does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the authorDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/authors/{id}")
     public ResponseEntity<AuthorDTO> updateAuthor(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody AuthorDTO authorDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Author : {}, {}", id, authorDTO);
@@ -93,13 +151,16 @@ public class AuthorResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!authorRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            checkIfMatch(id, ifMatch, authorDTO);
+        } else if (authorDTO.getVersion() == null) {
+            authorDTO.setVersion(authorRepository.findVersionById(id).orElseThrow(this::entityNotFound));
         }
 
-        AuthorDTO result = authorService.update(authorDTO);
+        AuthorDTO result = authorService.update(authorDTO).orElseThrow(this::entityNotFound);
         return ResponseEntity
             .ok()
+            .eTag(eTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, authorDTO.getId().toString()))
             .body(result);
     }
@@ -107,17 +168,23 @@ public class AuthorResource {
     /**
      * {@code PATCH  /authors/:id} : Partial updates given fields of an existing author, field will ignore if it is null
      *
+     * <p>
+     * With an {@code If-Match} header, the author is only updated if it still has one of the given entity tags.
+     *
      * @param id the id of the authorDTO to save.
+     * @param ifMatch the entity tags the author must still have, if any.
      * @param authorDTO the authorDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated authorDTO,
-     * or with status {@code 400 (Bad Request)} if the authorDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the authorDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the authorDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the author was modified meanwhile,
+     * or with status {@code 412 (Precondition Failed)} if the author does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the authorDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/authors/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<AuthorDTO> partialUpdateAuthor(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody AuthorDTO authorDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Author partially : {}, {}", id, authorDTO);
@@ -128,34 +195,75 @@ public class AuthorResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!authorRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            checkIfMatch(id, ifMatch, authorDTO);
         }
 
-        Optional<AuthorDTO> result = authorService.partialUpdate(authorDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, authorDTO.getId().toString())
-        );
+        AuthorDTO result = authorService.partialUpdate(authorDTO).orElseThrow(this::entityNotFound);
+        return ResponseEntity
+            .ok()
+            .eTag(eTag(result))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, authorDTO.getId().toString()))
+            .body(result);
     }
 
     /**
      * {@code GET  /authors} : get all the authors.
      *
+     * <p>
+     * The {@code count} parameter selects how the total is computed: {@code exact} (the default) runs a count query,
+     * {@code approximate} answers an estimate flagged by the {@code X-Total-Count-Approximate} header, and
+     * {@code none} skips the count and the {@code X-Total-Count} header entirely.
+     * <p>
+     * The entity tag only covers the body. When the {@code If-None-Match} header matches it, the authors are neither
+     * loaded nor counted.
+     *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of authors in body.
+     * @param count the count mode, one of {@code exact}, {@code approximate} or {@code none}.
+     * @param ifNoneMatch the entity tags of the representations the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of authors in body,
+     * or with status {@code 304 (Not Modified)} if the list matches the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the count mode is not valid.
      */
     @GetMapping("/authors")
     public ResponseEntity<List<AuthorDTO>> getAllAuthors(
         AuthorCriteria criteria,
+        @RequestParam(name = "count", defaultValue = SlicePaginationUtil.COUNT_EXACT) String count,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
         @org.springdoc.api.annotations.ParameterObject Pageable pageable
     ) {
-        log.debug("REST request to get Authors by criteria: {}", criteria);
-        Page<AuthorDTO> page = authorQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        log.debug("REST request to get Authors by criteria: {}, count: {}", criteria, count);
+        if (!SlicePaginationUtil.isCountMode(count)) {
+            throw new BadRequestAlertException("Invalid count mode", ENTITY_NAME, "countinvalid");
+        }
+        if (ifNoneMatch != null) {
+            String eTag = ETagUtil.strongETag(authorQueryService.findVersionTagsByCriteria(criteria, pageable));
+            if (ETagUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        HttpHeaders headers;
+        List<AuthorDTO> content;
+        switch (count) {
+            case SlicePaginationUtil.COUNT_APPROXIMATE:
+                Page<AuthorDTO> approximatePage = authorQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+                headers = SlicePaginationUtil.generateApproximatePaginationHttpHeaders(uriBuilder, approximatePage);
+                content = approximatePage.getContent();
+                break;
+            case SlicePaginationUtil.COUNT_NONE:
+                Slice<AuthorDTO> slice = authorQueryService.findSliceByCriteria(criteria, pageable);
+                headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder, slice);
+                content = slice.getContent();
+                break;
+            default:
+                Page<AuthorDTO> page = authorQueryService.findByCriteria(criteria, pageable);
+                headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+                content = page.getContent();
+        }
+        headers.setETag(ETagUtil.strongETag(content.stream().map(AuthorQueryService::versionTag).collect(Collectors.toList())));
+        return ResponseEntity.ok().headers(headers).body(content);
     }
 
     /**
@@ -174,13 +282,16 @@ public class AuthorResource {
      * {@code GET  /authors/:id} : get the "id" author.
      *
      * @param id the id of the authorDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the authorDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the authorDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the authorDTO matches the {@code If-None-Match} header.
      */
     @GetMapping("/authors/{id}")
     public ResponseEntity<AuthorDTO> getAuthor(@PathVariable Long id) {
         log.debug("REST request to get Author : {}", id);
         Optional<AuthorDTO> authorDTO = authorService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(authorDTO);
+        HttpHeaders headers = new HttpHeaders();
+        authorDTO.ifPresent(found -> headers.setETag(eTag(found)));
+        return ResponseUtil.wrapOrNotFound(authorDTO, headers);
     }
 
     /**
@@ -198,4 +309,21 @@ public class AuthorResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private void checkIfMatch(Long id, String ifMatch, AuthorDTO authorDTO) {
+        AuthorDTO current = authorService.findOne(id).orElseThrow(this::entityNotFound);
+        if (!ETagUtil.matchesIfMatch(ifMatch, eTag(current))) {
+            throw new PreconditionFailedAlertException("Entity was modified", ENTITY_NAME, "etagmismatch");
+        }
+        // the update is still rejected if the author is modified after this check
+        authorDTO.setVersion(current.getVersion());
+    }
+
+    private BadRequestAlertException entityNotFound() {
+        return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+    }
+
+    private static String eTag(AuthorDTO authorDTO) {
+        return ETagUtil.strongETag(List.of(AuthorQueryService.versionTag(authorDTO)));
+    }
 }
@@ -1,25 +1,54 @@
 package com.mycompany.myapp.web.rest;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mycompany.myapp.repository.BookRepository;
+import com.mycompany.myapp.service.BookBulkService;
 import com.mycompany.myapp.service.BookQueryService;
 import com.mycompany.myapp.service.BookService;
+import com.mycompany.myapp.service.KeysetCursor;
 import com.mycompany.myapp.service.criteria.BookCriteria;
 import com.mycompany.myapp.service.dto.BookDTO;
+import com.mycompany.myapp.service.dto.BulkItemResult;
+import com.mycompany.myapp.service.dto.BulkOperation;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
+import com.mycompany.myapp.web.rest.util.ETagUtil;
+import com.mycompany.myapp.web.rest.util.SlicePaginationUtil;
+import com.mycompany.myapp.web.rest.vm.BookCsvRowVM;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -35,6 +64,10 @@ public class BookResource {
 
     private static final String ENTITY_NAME = "book";
 
+    private static final String EXPORT_NDJSON = "ndjson";
+
+    private static final String EXPORT_CSV = "csv";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -44,10 +77,35 @@ public class BookResource {
 
     private final BookQueryService bookQueryService;
 
-    public BookResource(BookService bookService, BookRepository bookRepository, BookQueryService bookQueryService) {
+    private final BookBulkService bookBulkService;
+
+    private final ObjectReader bulkOperationReader;
+
+    private final ObjectWriter ndjsonExportWriter;
+
+    private final ObjectWriter csvExportWriter;
+
+    public BookResource(
+        BookService bookService,
+        BookRepository bookRepository,
+        BookQueryService bookQueryService,
+        BookBulkService bookBulkService,
+        ObjectMapper objectMapper
+    ) {
         this.bookService = bookService;
         this.bookRepository = bookRepository;
         this.bookQueryService = bookQueryService;
+        this.bookBulkService = bookBulkService;
+        this.bulkOperationReader = objectMapper.readerFor(new TypeReference<BulkOperation<BookDTO>>() {});
+        this.ndjsonExportWriter =
+            objectMapper.writerFor(BookDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("\n");
+        CsvMapper csvMapper = CsvMapper
+            .builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        this.csvExportWriter =
+            csvMapper.writer(csvMapper.schemaFor(BookCsvRowVM.class).withHeader()).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
@@ -70,19 +128,50 @@ public class BookResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /books/_bulk} : Create, update and delete books in bulk.
+     * <p>
+     * The body is a JSON array, or newline-delimited JSON, of operations like
+     * {@code {"action": "update", "data": {...}}}, where the action is {@code create}, {@code update} or {@code delete}.
+     * It is read while the operations are processed, in chunks of {@code application.bulk.chunk-size} operations with
+     * a transaction each. An update replaces the book, and is rejected if the data has another version than the book.
+     *
+     * @param request the request, whose body holds the operations.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation, in order:
+     * the status of the equivalent single-book request, the id and version of the book, or an error key.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/books/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<List<BulkItemResult>> bulkBooks(HttpServletRequest request) throws IOException {
+        log.debug("REST request to process Books in bulk");
+        try (MappingIterator<BulkOperation<BookDTO>> operations = bulkOperationReader.readValues(request.getInputStream())) {
+            return ResponseEntity.ok().body(bookBulkService.process(operations));
+        }
+    }
+
     /**
      * {@code PUT  /books/:id} : Updates an existing book.
      *
+     * <p>
+     * With an {@code If-Match} header, the book is only updated if it still has one of the given entity tags. Without
+     * it, the version of the bookDTO is checked when there is one, otherwise the last write wins.
+     *
      * @param id the id of the bookDTO to save.
+     * @param ifMatch the entity tags the book must still have, if any.
      * @param bookDTO the bookDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bookDTO,
-     * or with status {@code 400 (Bad Request)} if the bookDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the bookDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the book was modified meanwhile,
+     * or with status {@code 412 (Precondition Failed)} if the book does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the bookDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/books/{id}")
-    public ResponseEntity<BookDTO> updateBook(@PathVariable(value = "id", required = false) final Long id, @RequestBody BookDTO bookDTO)
-        throws URISyntaxException {
+    public ResponseEntity<BookDTO> updateBook(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody BookDTO bookDTO
+    ) throws URISyntaxException {
         log.debug("REST request to update Book : {}, {}", id, bookDTO);
         if (bookDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -91,13 +180,16 @@ public class BookResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!bookRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            checkIfMatch(id, ifMatch, bookDTO);
+        } else if (bookDTO.getVersion() == null) {
+            bookDTO.setVersion(bookRepository.findVersionById(id).orElseThrow(this::entityNotFound));
         }
 
-        BookDTO result = bookService.update(bookDTO);
+        BookDTO result = bookService.update(bookDTO).orElseThrow(this::entityNotFound);
         return ResponseEntity
             .ok()
+            .eTag(eTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bookDTO.getId().toString()))
             .body(result);
     }
@@ -105,17 +197,23 @@ public class BookResource {
     /**
      * {@code PATCH  /books/:id} : Partial updates given fields of an existing book, field will ignore if it is null
      *
+     * <p>
+     * With an {@code If-Match} header, the book is only updated if it still has one of the given entity tags.
+     *
      * @param id the id of the bookDTO to save.
+     * @param ifMatch the entity tags the book must still have, if any.
      * @param bookDTO the bookDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bookDTO,
-     * or with status {@code 400 (Bad Request)} if the bookDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the bookDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the bookDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the book was modified meanwhile,
+     * or with status {@code 412 (Precondition Failed)} if the book does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the bookDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/books/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<BookDTO> partialUpdateBook(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody BookDTO bookDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Book partially : {}, {}", id, bookDTO);
@@ -126,34 +224,115 @@ public class BookResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!bookRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            checkIfMatch(id, ifMatch, bookDTO);
         }
 
-        Optional<BookDTO> result = bookService.partialUpdate(bookDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bookDTO.getId().toString())
-        );
+        BookDTO result = bookService.partialUpdate(bookDTO).orElseThrow(this::entityNotFound);
+        return ResponseEntity
+            .ok()
+            .eTag(eTag(result))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bookDTO.getId().toString()))
+            .body(result);
     }
 
     /**
      * {@code GET  /books} : get all the books.
      *
+     * <p>
+     * The {@code count} parameter selects how the total is computed: {@code exact} (the default) runs a count query,
+     * {@code approximate} answers an estimate flagged by the {@code X-Total-Count-Approximate} header, and
+     * {@code none} skips the count and the {@code X-Total-Count} header entirely.
+     * <p>
+     * The entity tag only covers the body. When the {@code If-None-Match} header matches it, the books are neither
+     * loaded nor counted.
+     *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body.
+     * @param count the count mode, one of {@code exact}, {@code approximate} or {@code none}.
+     * @param ifNoneMatch the entity tags of the representations the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body,
+     * or with status {@code 304 (Not Modified)} if the list matches the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the count mode is not valid.
      */
     @GetMapping("/books")
     public ResponseEntity<List<BookDTO>> getAllBooks(
         BookCriteria criteria,
+        @RequestParam(name = "count", defaultValue = SlicePaginationUtil.COUNT_EXACT) String count,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
         @org.springdoc.api.annotations.ParameterObject Pageable pageable
     ) {
-        log.debug("REST request to get Books by criteria: {}", criteria);
-        Page<BookDTO> page = bookQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        log.debug("REST request to get Books by criteria: {}, count: {}", criteria, count);
+        if (!SlicePaginationUtil.isCountMode(count)) {
+            throw new BadRequestAlertException("Invalid count mode", ENTITY_NAME, "countinvalid");
+        }
+        if (ifNoneMatch != null) {
+            String eTag = ETagUtil.strongETag(bookQueryService.findVersionTagsByCriteria(criteria, pageable));
+            if (ETagUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        HttpHeaders headers;
+        List<BookDTO> content;
+        switch (count) {
+            case SlicePaginationUtil.COUNT_APPROXIMATE:
+                Page<BookDTO> approximatePage = bookQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+                headers = SlicePaginationUtil.generateApproximatePaginationHttpHeaders(uriBuilder, approximatePage);
+                content = approximatePage.getContent();
+                break;
+            case SlicePaginationUtil.COUNT_NONE:
+                Slice<BookDTO> slice = bookQueryService.findSliceByCriteria(criteria, pageable);
+                headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder, slice);
+                content = slice.getContent();
+                break;
+            default:
+                Page<BookDTO> page = bookQueryService.findByCriteria(criteria, pageable);
+                headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+                content = page.getContent();
+        }
+        headers.setETag(ETagUtil.strongETag(content.stream().map(BookQueryService::versionTag).collect(Collectors.toList())));
+        return ResponseEntity.ok().headers(headers).body(content);
+    }
+
+    /**
+     * {@code GET  /books?after=:cursor} : get the books using keyset pagination.
+     * <p>
+     * An empty {@code after} parameter requests the first slice. When there are more books, the response carries a
+     * {@code Link} header with {@code rel="next"} whose URL holds the cursor of the next slice. No total count is computed.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the opaque cursor returned by the previous slice, or an empty value for the first slice.
+     * @param pageable the slice size and the sort order, on one of {@code id}, {@code title}, {@code publicationDate} or {@code price}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort order is not valid.
+     */
+    @GetMapping(value = "/books", params = "after")
+    public ResponseEntity<List<BookDTO>> getAllBooksByKeyset(
+        BookCriteria criteria,
+        @RequestParam("after") String after,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get Books by criteria: {}, after: {}", criteria, after);
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        Slice<BookDTO> slice;
+        try {
+            KeysetCursor cursor = after.isEmpty() ? null : KeysetCursor.decode(after);
+            slice = bookQueryService.findByCriteria(criteria, order, pageable.getPageSize(), cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            KeysetCursor next = bookQueryService.createCursor(slice.getContent().get(slice.getNumberOfElements() - 1), order);
+            String nextUri = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("after", next.encode())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
@@ -168,17 +347,73 @@ public class BookResource {
         return ResponseEntity.ok().body(bookQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /books/_export} : export all the books which match the criteria.
+     * <p>
+     * The books are written as they are read from the database, in id order, so the whole catalog can be exported:
+     * as newline-delimited JSON, or as CSV with a header row and the author flattened into columns.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format the format, {@code ndjson} (the default) or {@code csv}.
+     * @param response the response, which the books are written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/books/_export")
+    public void exportBooks(
+        BookCriteria criteria,
+        @RequestParam(name = "format", defaultValue = EXPORT_NDJSON) String format,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Books by criteria: {}, format: {}", criteria, format);
+        ObjectWriter writer;
+        Function<BookDTO, Object> toRow;
+        switch (format) {
+            case EXPORT_NDJSON:
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                writer = ndjsonExportWriter;
+                toRow = Function.identity();
+                break;
+            case EXPORT_CSV:
+                response.setContentType("text/csv");
+                response.setHeader(
+                    HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename("books.csv").build().toString()
+                );
+                writer = csvExportWriter;
+                toRow = BookCsvRowVM::new;
+                break;
+            default:
+                throw new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.setCharacterEncoding("UTF-8");
+        try (SequenceWriter rows = writer.writeValues(response.getOutputStream())) {
+            bookQueryService.exportByCriteria(
+                criteria,
+                book -> {
+                    try {
+                        rows.write(toRow.apply(book));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+    }
+
     /**
      * {@code GET  /books/:id} : get the "id" book.
      *
      * @param id the id of the bookDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the bookDTO matches the {@code If-None-Match} header.
      */
     @GetMapping("/books/{id}")
     public ResponseEntity<BookDTO> getBook(@PathVariable Long id) {
         log.debug("REST request to get Book : {}", id);
         Optional<BookDTO> bookDTO = bookService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(bookDTO);
+        HttpHeaders headers = new HttpHeaders();
+        bookDTO.ifPresent(found -> headers.setETag(eTag(found)));
+        return ResponseUtil.wrapOrNotFound(bookDTO, headers);
     }
 
     /**
@@ -196,4 +431,21 @@ public class BookResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private void checkIfMatch(Long id, String ifMatch, BookDTO bookDTO) {
+        BookDTO current = bookService.findOne(id).orElseThrow(this::entityNotFound);
+        if (!ETagUtil.matchesIfMatch(ifMatch, eTag(current))) {
+            throw new PreconditionFailedAlertException("Entity was modified", ENTITY_NAME, "etagmismatch");
+        }
+        // the update is still rejected if the book is modified after this check
+        bookDTO.setVersion(current.getVersion());
+    }
+
+    private BadRequestAlertException entityNotFound() {
+        return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+    }
+
+    private static String eTag(BookDTO bookDTO) {
+        return ETagUtil.strongETag(List.of(BookQueryService.versionTag(bookDTO)));
+    }
 }
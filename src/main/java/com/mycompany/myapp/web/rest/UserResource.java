@@ -4,12 +4,12 @@ import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
-import com.mycompany.myapp.service.MailService;
 import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.web.rest.errors.EmailAlreadyUsedException;
 import com.mycompany.myapp.web.rest.errors.LoginAlreadyUsedException;
+import com.mycompany.myapp.web.rest.vm.ManagedUsersVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -85,12 +85,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -119,7 +116,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity
                 .created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert(applicationName, "userManagement.created", newUser.getLogin()))
@@ -127,6 +123,40 @@ public class UserResource {
         }
     }
 
+    /**
+     * {@code POST  /admin/users/_batch}  : Creates new users at once, e.g. when onboarding them.
+     * <p>
+     * Creates the users if none of their logins and emails is already used, and sends them their
+     * mails with an activation link as a batch.
+     * The users need to be activated on creation.
+     *
+     * @param managedUsersVM the users to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new users, in order, or with status {@code 400 (Bad Request)} if a login or email is already in use.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a login or email is already in use, or used twice.
+     */
+    @PostMapping("/users/_batch")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<User>> createUsers(@Valid @RequestBody ManagedUsersVM managedUsersVM) {
+        List<AdminUserDTO> userDTOs = managedUsersVM.getUsers();
+        log.debug("REST request to save {} Users", userDTOs.size());
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (AdminUserDTO userDTO : userDTOs) {
+            if (userDTO.getId() != null) {
+                throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
+            }
+            String login = userDTO.getLogin().toLowerCase();
+            if (!logins.add(login) || userRepository.findOneByLogin(login).isPresent()) {
+                throw new LoginAlreadyUsedException();
+            }
+            String email = userDTO.getEmail();
+            if (email != null && (!emails.add(email.toLowerCase()) || userRepository.findOneByEmailIgnoreCase(email).isPresent())) {
+                throw new EmailAlreadyUsedException();
+            }
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(userService.createUsers(userDTOs));
+    }
+
     /**
      * {@code PUT /admin/users} : Updates an existing User.
      *
@@ -0,0 +1,71 @@
+package com.mycompany.myapp.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Utility class for computing and comparing entity tags (RFC 7232).
+ * <p>
+ * Tags are computed from version tags, which change whenever the representation of an entity does: they are known
+ * before the entities are mapped or serialized.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETagUtil() {}
+
+    /**
+     * Compute the strong entity tag of a representation made of the given entities.
+     *
+     * @param versionTags the version tags of the entities, in representation order.
+     * @return the quoted entity tag.
+     */
+    public static String strongETag(List<String> versionTags) {
+        return "\"" + DigestUtils.md5DigestAsHex(String.join(",", versionTags).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Evaluate an {@code If-Match} header, using the strong comparison.
+     *
+     * @param ifMatch the header value.
+     * @param eTag the current entity tag.
+     * @return {@code true} if the request may proceed.
+     */
+    public static boolean matchesIfMatch(String ifMatch, String eTag) {
+        return matches(ifMatch, eTag, false);
+    }
+
+    /**
+     * Evaluate an {@code If-None-Match} header, using the weak comparison.
+     *
+     * @param ifNoneMatch the header value.
+     * @param eTag the current entity tag.
+     * @return {@code true} if the client representation is current, and a {@code 304 (Not Modified)} should be sent.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        return matches(ifNoneMatch, eTag, true);
+    }
+
+    private static boolean matches(String header, String eTag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (ANY.equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.mycompany.myapp.web.rest.util;
+
+import java.text.MessageFormat;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for handling pagination when the total number of entities is not known exactly.
+ * <p>
+ * Complements {@link PaginationUtil}, which needs an exact {@link Page}.
+ */
+public final class SlicePaginationUtil {
+
+    /**
+     * The total is counted exactly, which is the default.
+     */
+    public static final String COUNT_EXACT = "exact";
+
+    /**
+     * The total is not counted at all: only a {@code Link} header is returned.
+     */
+    public static final String COUNT_NONE = "none";
+
+    /**
+     * The total is estimated, and flagged as such with the {@link #HEADER_X_TOTAL_COUNT_APPROXIMATE} header.
+     */
+    public static final String COUNT_APPROXIMATE = "approximate";
+
+    public static final String HEADER_X_TOTAL_COUNT_APPROXIMATE = "X-Total-Count-Approximate";
+
+    private static final Set<String> COUNT_MODES = Set.of(COUNT_EXACT, COUNT_NONE, COUNT_APPROXIMATE);
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Tell whether a value is one of the count modes.
+     *
+     * @param count The value.
+     * @return {@code true} if it is {@link #COUNT_EXACT}, {@link #COUNT_NONE} or {@link #COUNT_APPROXIMATE}.
+     */
+    public static boolean isCountMode(String count) {
+        return COUNT_MODES.contains(count);
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object: there is no {@code X-Total-Count} header and
+     * the {@code Link} header has no {@code last} relation.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The slice.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Page} object whose total is approximate.
+     *
+     * @param uriBuilder The URI builder.
+     * @param page The page.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateApproximatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Page<T> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        headers.add(HEADER_X_TOTAL_COUNT_APPROXIMATE, Boolean.TRUE.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, pageNumber, pageSize), relType);
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize) {
+        return uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.mycompany.myapp.service.dto.AuthorDTO;
+import com.mycompany.myapp.service.dto.BookDTO;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * View Model object for a row of the CSV export of the books, where the author is flattened into columns.
+ */
+@JsonPropertyOrder({ "id", "version", "title", "description", "publicationDate", "price", "authorId", "authorName" })
+public class BookCsvRowVM {
+
+    private final BookDTO book;
+
+    public BookCsvRowVM(BookDTO book) {
+        this.book = book;
+    }
+
+    public Long getId() {
+        return book.getId();
+    }
+
+    public Long getVersion() {
+        return book.getVersion();
+    }
+
+    public String getTitle() {
+        return book.getTitle();
+    }
+
+    public String getDescription() {
+        return book.getDescription();
+    }
+
+    public LocalDate getPublicationDate() {
+        return book.getPublicationDate();
+    }
+
+    public BigDecimal getPrice() {
+        return book.getPrice();
+    }
+
+    public Long getAuthorId() {
+        AuthorDTO author = book.getAuthor();
+        return author == null ? null : author.getId();
+    }
+
+    public String getAuthorName() {
+        AuthorDTO author = book.getAuthor();
+        return author == null ? null : author.getName();
+    }
+}
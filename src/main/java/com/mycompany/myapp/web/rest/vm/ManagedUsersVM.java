@@ -0,0 +1,40 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * View Model object for storing the users created at once, e.g. when onboarding them.
+ */
+public class ManagedUsersVM {
+
+    /**
+     * Users created in a single transaction.
+     */
+    public static final int MAX_USERS = 500;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_USERS)
+    private List<@NotNull AdminUserDTO> users;
+
+    public List<AdminUserDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<AdminUserDTO> users) {
+        this.users = users;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ManagedUsersVM{" +
+            "users=" + users +
+            "}";
+    }
+}
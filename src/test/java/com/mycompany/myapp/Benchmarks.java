@@ -0,0 +1,35 @@
+package com.mycompany.myapp;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the JMH benchmarks of the test sources, all with the same iterations and the GC profiler, as described in the
+ * "Benchmarks" section of the README.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {}
+
+    /**
+     * @param benchmark the class of the benchmarks to run.
+     * @throws RunnerException if the benchmarks could not run.
+     */
+    public static void run(Class<?> benchmark) throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(benchmark.getName())
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .build()
+        )
+            .run();
+    }
+}
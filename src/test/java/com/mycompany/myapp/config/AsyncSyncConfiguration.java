@@ -1,5 +1,6 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.service.MailOutboxDispatcher;
 import java.util.concurrent.Executor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,4 +14,14 @@ public class AsyncSyncConfiguration {
     public Executor taskExecutor() {
         return new SyncTaskExecutor();
     }
+
+    @Bean(name = MailOutboxDispatcher.EXECUTOR)
+    public Executor mailExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = AsyncConfiguration.LIQUIBASE_EXECUTOR)
+    public Executor liquibaseExecutor() {
+        return new SyncTaskExecutor();
+    }
 }
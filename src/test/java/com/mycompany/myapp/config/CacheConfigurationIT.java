@@ -0,0 +1,69 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the per-region configuration of {@link CacheConfiguration}.
+ */
+@IntegrationTest
+@TestPropertySource(properties = { "jhipster.cache.ehcache.max-entries=50", "application.cache.regions.usersByLogin.heap-entries=2" })
+class CacheConfigurationIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanup() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).removeAll();
+    }
+
+    @Test
+    void testRegionOverridesTheDefaultHeapSize() {
+        assertThat(resourcePools(UserRepository.USERS_BY_LOGIN_CACHE).getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(2);
+        assertThat(resourcePools(UserRepository.USERS_BY_EMAIL_CACHE).getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(50);
+    }
+
+    @Test
+    void testRegionSizeIsExported() {
+        Cache<Object, Object> cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.put("a", "a");
+        assertThat(regionSize(UserRepository.USERS_BY_LOGIN_CACHE)).isEqualTo(1);
+
+        cache.put("b", "b");
+        cache.put("c", "c");
+        assertThat(regionSize(UserRepository.USERS_BY_LOGIN_CACHE)).isEqualTo(2);
+
+        cache.remove("c");
+        cache.remove("b");
+        cache.remove("a");
+        assertThat(regionSize(UserRepository.USERS_BY_LOGIN_CACHE)).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourcePools resourcePools(String cacheName) {
+        return cacheManager
+            .getCache(cacheName)
+            .unwrap(org.ehcache.Cache.class)
+            .getRuntimeConfiguration()
+            .getResourcePools();
+    }
+
+    private double regionSize(String cacheName) {
+        return meterRegistry.get(CacheMetrics.CACHE_SIZE_METER_NAME).tag(CacheMetrics.CACHE_DIMENSION, cacheName).gauge().value();
+    }
+}
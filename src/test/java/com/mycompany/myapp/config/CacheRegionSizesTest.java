@@ -0,0 +1,77 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheRegionSizesTest {
+
+    private static final String REGION = "region";
+
+    private CacheRegionSizes cacheRegionSizes;
+
+    private CacheManager cacheManager;
+
+    private DomainDataStorageAccess storageAccess;
+
+    @BeforeEach
+    public void setup() {
+        cacheRegionSizes = new CacheRegionSizes();
+        cacheManager =
+            Caching
+                .getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager(URI.create(CacheRegionSizesTest.class.getName()), CacheRegionSizesTest.class.getClassLoader());
+        Cache<Object, Object> cache = cacheManager.createCache(
+            REGION,
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10))
+                    .withService(cacheRegionSizes.listenerFor(REGION))
+                    .build()
+            )
+        );
+        storageAccess = cacheRegionSizes.storageAccess(REGION, new JCacheAccessImpl(cache));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void testSizeIsResetWhenHibernateEvictsTheRegion() {
+        storageAccess.putIntoCache(1L, "a", null);
+        storageAccess.putIntoCache(2L, "b", null);
+        assertThat(cacheRegionSizes.getSize(REGION)).isEqualTo(2);
+
+        storageAccess.evictData();
+        assertThat(cacheRegionSizes.getSize(REGION)).isZero();
+
+        storageAccess.putIntoCache(3L, "c", null);
+        assertThat(cacheRegionSizes.getSize(REGION)).isEqualTo(1);
+        storageAccess.clearCache(null);
+        assertThat(cacheRegionSizes.getSize(REGION)).isZero();
+    }
+
+    @Test
+    void testSizeFollowsTheEvictionOfAnEntry() {
+        storageAccess.putIntoCache(1L, "a", null);
+        storageAccess.putIntoCache(2L, "b", null);
+
+        storageAccess.evictData(1L);
+
+        assertThat(cacheRegionSizes.getSize(REGION)).isEqualTo(1);
+    }
+}
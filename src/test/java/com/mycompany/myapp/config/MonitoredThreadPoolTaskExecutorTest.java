@@ -0,0 +1,95 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class MonitoredThreadPoolTaskExecutorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private MonitoredThreadPoolTaskExecutor executor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testCallerRunsWhenTheQueueIsFull() throws Exception {
+        executor = newExecutor(ApplicationProperties.Async.RejectionPolicy.CALLER_RUNS);
+        CountDownLatch completed = new CountDownLatch(3);
+        executor.execute(() -> awaitRelease(completed));
+        executor.execute(completed::countDown);
+        AtomicReference<Thread> callerRunsThread = new AtomicReference<>();
+        executor.execute(() -> {
+            callerRunsThread.set(Thread.currentThread());
+            completed.countDown();
+        });
+
+        assertThat(callerRunsThread.get()).isSameAs(Thread.currentThread());
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isEqualTo(1);
+        release.countDown();
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAbortWhenTheQueueIsFull() {
+        executor = newExecutor(ApplicationProperties.Async.RejectionPolicy.ABORT);
+        executor.execute(() -> awaitRelease(new CountDownLatch(1)));
+        executor.execute(() -> {});
+
+        assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(() -> {}));
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTasksAreTimed() throws Exception {
+        executor = newExecutor(ApplicationProperties.Async.RejectionPolicy.ABORT);
+        CountDownLatch completed = new CountDownLatch(1);
+        executor.execute(completed::countDown);
+
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("executor.idle").tag("name", "test").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor").tag("name", "test").timer().count()).isEqualTo(1);
+    }
+
+    private MonitoredThreadPoolTaskExecutor newExecutor(ApplicationProperties.Async.RejectionPolicy rejectionPolicy) {
+        ApplicationProperties.Async.Pool pool = new ApplicationProperties.Async.Pool();
+        pool.setSize(1);
+        pool.setQueueCapacity(1);
+        pool.setRejectionPolicy(rejectionPolicy);
+        MonitoredThreadPoolTaskExecutor monitoredExecutor = new MonitoredThreadPoolTaskExecutor("test", pool, meterRegistry);
+        monitoredExecutor.initialize();
+        return monitoredExecutor;
+    }
+
+    private void awaitRelease(CountDownLatch completed) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        completed.countDown();
+    }
+}
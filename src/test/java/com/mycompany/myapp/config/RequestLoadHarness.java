@@ -0,0 +1,144 @@
+package com.mycompany.myapp.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of a running application: a number of clients send the same request in a loop for a while, then the
+ * throughput and the latency percentiles are printed, with the count of responses by status.
+ * <p>
+ * Compare the application started with and without the {@code bounded} profile, at a concurrency above the limit.
+ */
+public final class RequestLoadHarness {
+
+    private static final int WARMUP_SECONDS = 10;
+
+    private RequestLoadHarness() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: RequestLoadHarness <url> [clients, 100] [seconds, 60] [bearer token]");
+            return;
+        }
+        URI uri = URI.create(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (args.length > 3) {
+            builder.header("Authorization", "Bearer " + args[3]);
+        }
+        HttpRequest request = builder.build();
+        HttpClient client = HttpClient
+            .newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newFixedThreadPool(clients))
+            .build();
+
+        System.out.printf("Warming up %s with %d clients for %d s%n", uri, clients, WARMUP_SECONDS);
+        run(client, request, clients, WARMUP_SECONDS);
+        System.out.printf("Measuring for %d s%n", seconds);
+        Result result = run(client, request, clients, seconds);
+        result.print(seconds);
+        System.exit(0);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            Future<?>[] futures = new Future<?>[clients];
+            Latencies[] latencies = new Latencies[clients];
+            for (int i = 0; i < clients; i++) {
+                Latencies clientLatencies = new Latencies();
+                latencies[i] = clientLatencies;
+                futures[i] =
+                    executor.submit(() -> {
+                        while (System.nanoTime() < end) {
+                            long start = System.nanoTime();
+                            int status;
+                            try {
+                                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (IOException e) {
+                                status = -1;
+                            }
+                            clientLatencies.add(System.nanoTime() - start);
+                            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        }
+                        return null;
+                    });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return new Result(latencies, statuses);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The latencies measured by a client, in nanoseconds.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class Result {
+
+        private final long[] latencies;
+
+        private final Map<Integer, LongAdder> statuses;
+
+        private Result(Latencies[] clientLatencies, Map<Integer, LongAdder> statuses) {
+            this.latencies = Arrays.stream(clientLatencies).flatMapToLong(l -> Arrays.stream(l.values, 0, l.size)).sorted().toArray();
+            this.statuses = statuses;
+        }
+
+        private void print(int seconds) {
+            if (latencies.length == 0) {
+                System.out.println("No request completed");
+                return;
+            }
+            System.out.printf("Requests: %d, throughput: %.1f/s%n", latencies.length, (double) latencies.length / seconds);
+            System.out.printf(
+                "Latency (ms): p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                percentile(0.50),
+                percentile(0.90),
+                percentile(0.99),
+                latencies[latencies.length - 1] / 1e6
+            );
+            Map<Integer, Long> sorted = new TreeMap<>();
+            statuses.forEach((status, count) -> sorted.put(status, count.sum()));
+            System.out.println("Statuses (-1 for I/O errors): " + sorted);
+        }
+
+        private double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UndertowConfigurationTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private MeterRegistry meterRegistry;
+
+    private Undertow server;
+
+    private String baseUrl;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties.Server.RequestLimit properties = new ApplicationProperties.Server.RequestLimit();
+        properties.setMaxConcurrentRequests(1);
+        properties.setQueueSize(1);
+        Counter rejected = Counter.builder(UndertowConfiguration.REJECTED_METER_NAME).register(meterRegistry);
+        server =
+            Undertow
+                .builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(UndertowConfiguration.limit(blockingHandler(), properties, rejected))
+                .build();
+        server.start();
+        InetSocketAddress address = (InetSocketAddress) server.getListenerInfo().get(0).getAddress();
+        baseUrl = "http://localhost:" + address.getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop();
+    }
+
+    /**
+     * Answers the {@code /management} requests at once, and blocks a worker thread with the others until released.
+     */
+    private HttpHandler blockingHandler() {
+        return new HttpHandler() {
+            @Override
+            public void handleRequest(HttpServerExchange exchange) throws Exception {
+                if (exchange.getRelativePath().startsWith("/management/")) {
+                    exchange.getResponseSender().send("UP");
+                    return;
+                }
+                if (exchange.isInIoThread()) {
+                    exchange.dispatch(this);
+                    return;
+                }
+                started.countDown();
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                exchange.getResponseSender().send("done");
+            }
+        };
+    }
+
+    @Test
+    void testRequestsBeyondTheLimitAndTheQueueAreRejected() throws Exception {
+        CompletableFuture<HttpResponse<String>> running = get("/api/running");
+        assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<HttpResponse<String>>> waiting = List.of(get("/api/first"), get("/api/second"));
+
+        // one of them is queued, the other one is rejected at once
+        CompletableFuture.anyOf(waiting.toArray(new CompletableFuture<?>[0])).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get(UndertowConfiguration.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        release.countDown();
+
+        assertThat(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+        assertThat(waiting)
+            .extracting(response -> response.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).statusCode())
+            .containsExactlyInAnyOrder(200, 503);
+        assertThat(meterRegistry.get(UndertowConfiguration.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testManagementRequestsAreNotLimited() throws Exception {
+        CompletableFuture<HttpResponse<String>> running = get("/api/running");
+        assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<HttpResponse<String>> queued = get("/api/queued");
+
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> health = get("/management/health").get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertThat(health.statusCode()).isEqualTo(200);
+            assertThat(health.body()).isEqualTo("UP");
+        }
+        assertThat(queued).isNotDone();
+        release.countDown();
+
+        assertThat(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+        assertThat(queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+        assertThat(meterRegistry.get(UndertowConfiguration.REJECTED_METER_NAME).counter().count()).isZero();
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String path) {
+        return client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,97 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.security.jwt.JWTFilter;
+import com.mycompany.myapp.web.rest.TestUtil;
+import com.mycompany.myapp.web.rest.vm.LoginVM;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.filter.CorsFilter;
+
+/**
+ * Integration tests for the {@link AuthenticationRateLimitFilter} in the security filter chain.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.security.rate-limit.enabled=true",
+        "application.security.rate-limit.address-capacity=2",
+        "jhipster.cors.allowed-origins=" + AuthenticationRateLimitFilterIT.ORIGIN,
+        "jhipster.cors.allowed-methods=*",
+        "jhipster.cors.allowed-headers=*",
+        "jhipster.cors.exposed-headers=Retry-After",
+    }
+)
+class AuthenticationRateLimitFilterIT {
+
+    static final String ORIGIN = "http://rate-limit.example.com";
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testFilterRunsAfterTheCorsFilterAndBeforeTheAuthentication() {
+        List<Class<?>> filters = filterChainProxy
+            .getFilters("/api/authenticate")
+            .stream()
+            .map(Filter::getClass)
+            .collect(Collectors.toList());
+
+        assertThat(filters).containsSubsequence(CorsFilter.class, AuthenticationRateLimitFilter.class, JWTFilter.class);
+    }
+
+    @Test
+    void testThrottledRequestGetsAProblemReadableByTheBrowser() throws Exception {
+        authenticate("10.0.0.1").andExpect(status().isUnauthorized());
+        authenticate("10.0.0.1").andExpect(status().isUnauthorized());
+
+        authenticate("10.0.0.1")
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN))
+            .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString(HttpHeaders.RETRY_AFTER)))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase()))
+            .andExpect(jsonPath("$.status").value(HttpStatus.TOO_MANY_REQUESTS.value()))
+            .andExpect(jsonPath("$.message").value("error.http.429"));
+    }
+
+    private ResultActions authenticate(String address) throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("rate-limited");
+        login.setPassword("password");
+        return mockMvc.perform(
+            post("/api/authenticate")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .header(HttpHeaders.ORIGIN, ORIGIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(login))
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+class AuthenticationRateLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AuthenticationRateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Security.RateLimit rateLimit = new ApplicationProperties.Security.RateLimit();
+        rateLimit.setAddressCapacity(3);
+        rateLimit.setLoginCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AuthenticationRateLimitFilter(rateLimit, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void testLoginIsThrottled() throws Exception {
+        assertThat(authenticate("10.0.0.1", "user").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("10.0.0.2", "User").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = authenticate("10.0.0.3", "user");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(response.getContentAsString()).contains("error.http.429");
+        assertThat(meterRegistry.get(AuthenticationRateLimitFilter.THROTTLED_METER_NAME).tag("limit", "login").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testAddressIsThrottled() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("10.0.0.1", "user" + i).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(authenticate("10.0.0.1", "other").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(meterRegistry.get(AuthenticationRateLimitFilter.THROTTLED_METER_NAME).tag("limit", "address").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testRefreshIsThrottledByAddress() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(refresh("10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(refresh("10.0.0.1").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(refresh("10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testBodyIsReplayed() throws Exception {
+        String body = "{\"username\":\"user\",\"password\":\"secret\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain filterChain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(StreamUtils.copyToString(filterChain.getRequest().getInputStream(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void testBodyIsReplayedToAReadListener() throws Exception {
+        String body = "{\"username\":\"user\",\"password\":\"secret\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain filterChain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        ServletInputStream inputStream = filterChain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        inputStream.setReadListener(
+            new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8];
+                    int length;
+                    while (inputStream.isReady() && (length = inputStream.read(buffer)) > 0) {
+                        read.write(buffer, 0, length);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            }
+        );
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(allDataRead).isTrue();
+        assertThat(inputStream.isFinished()).isTrue();
+    }
+
+    @Test
+    void testOtherEndpointsAreNotThrottled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/account");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private MockHttpServletResponse refresh(String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate/refresh");
+        request.setRemoteAddr(address);
+        request.setContent("{\"refreshToken\":\"token\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse authenticate(String address, String login) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setRemoteAddr(address);
+        request.setContent(("{\"username\":\"" + login + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.Benchmarks;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Compares the parsing of the authorities claim of a JWT by splitting and streaming it, as done before
+ * {@link AuthorityRegistry}, with {@link AuthorityRegistry#parse(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorityClaimBenchmark {
+
+    @Param({ "ROLE_USER", "ROLE_ADMIN,ROLE_USER", "ROLE_ADMIN,ROLE_USER,ROLE_CATALOG_EDITOR,ROLE_CATALOG_REVIEWER" })
+    public String claim;
+
+    @Benchmark
+    public List<GrantedAuthority> splitAndStream() {
+        return Arrays
+            .stream(claim.split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> registry() {
+        return AuthorityRegistry.parse(claim);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(AuthorityClaimBenchmark.class);
+    }
+}
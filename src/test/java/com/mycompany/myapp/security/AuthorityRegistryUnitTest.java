@@ -0,0 +1,47 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Test class for the {@link AuthorityRegistry} utility class.
+ */
+class AuthorityRegistryUnitTest {
+
+    @Test
+    void testOfReturnsCanonicalInstances() {
+        assertThat(AuthorityRegistry.of(AuthoritiesConstants.ADMIN)).isSameAs(AuthorityRegistry.of(new String("ROLE_ADMIN")));
+        assertThat(AuthorityRegistry.of("ROLE_REGISTRY_TEST")).isSameAs(AuthorityRegistry.of("ROLE_REGISTRY_TEST"));
+        assertThat(AuthorityRegistry.of("ROLE_REGISTRY_TEST").getAuthority()).isEqualTo("ROLE_REGISTRY_TEST");
+    }
+
+    @Test
+    void testParse() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.parse("ROLE_ADMIN,ROLE_USER,ROLE_REGISTRY_TEST");
+
+        assertThat(authorities)
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER, "ROLE_REGISTRY_TEST");
+        assertThat(authorities.get(0)).isSameAs(AuthorityRegistry.of(AuthoritiesConstants.ADMIN));
+        assertThat(authorities.get(2)).isSameAs(AuthorityRegistry.of("ROLE_REGISTRY_TEST"));
+    }
+
+    @Test
+    void testParseIgnoresBlanksAndEmptyNames() {
+        assertThat(AuthorityRegistry.parse(" ROLE_USER ,, \t,ROLE_ADMIN,"))
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        assertThat(AuthorityRegistry.parse("")).isEmpty();
+        assertThat(AuthorityRegistry.parse(" , ")).isEmpty();
+    }
+
+    @Test
+    void testParseDoesNotMatchPrefixesOfConstants() {
+        assertThat(AuthorityRegistry.parse("ROLE_USERS,ROLE_USE"))
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly("ROLE_USERS", "ROLE_USE");
+    }
+}
@@ -0,0 +1,76 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BoundedExpiringMapTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+
+    private BoundedExpiringMap<String, Long> map;
+
+    @BeforeEach
+    public void setup() {
+        // the values are their expiration time
+        map = new BoundedExpiringMap<>(10, Long::longValue, now::get);
+    }
+
+    @Test
+    void testExpiredValuesAreKeptUntilRoomIsMade() {
+        map.put("expired", 500L);
+
+        assertThat(map.get("expired")).isEqualTo(500L);
+        assertThat(map.computeIfAbsent("expired", key -> 2000L)).isEqualTo(500L);
+    }
+
+    @Test
+    void testExpiredValuesArePurgedFirst() {
+        for (int i = 0; i < 5; i++) {
+            map.put("expired-" + i, now.get());
+            map.put("valid-" + i, now.get() + 1);
+        }
+
+        map.put("new", now.get() + 1);
+
+        assertThat(map.size()).isEqualTo(6);
+        for (int i = 0; i < 5; i++) {
+            assertThat(map.get("expired-" + i)).isNull();
+            assertThat(map.get("valid-" + i)).isNotNull();
+        }
+    }
+
+    @Test
+    void testValidValuesAreNotEvictedWhenFull() {
+        for (int i = 0; i < 10; i++) {
+            map.computeIfAbsent("valid-" + i, key -> now.get() + 1);
+        }
+
+        assertThat(map.computeIfAbsent("new", key -> now.get() + 1)).isNull();
+        assertThat(map.put("new", now.get() + 1)).isFalse();
+
+        assertThat(map.size()).isEqualTo(10);
+        assertThat(map.get("new")).isNull();
+        for (int i = 0; i < 10; i++) {
+            assertThat(map.get("valid-" + i)).isNotNull();
+        }
+        assertThat(map.put("valid-0", now.get() + 2)).isTrue();
+    }
+
+    @Test
+    void testNewKeysAreAcceptedOnceValuesExpire() {
+        for (int i = 0; i < 10; i++) {
+            map.put("valid-" + i, now.get() + 10 + i);
+        }
+        assertThat(map.put("new", now.get() + 100)).isFalse();
+
+        now.addAndGet(10);
+
+        assertThat(map.put("new", now.get() + 100)).isTrue();
+        assertThat(map.get("valid-0")).isNull();
+        assertThat(map.get("valid-1")).isNotNull();
+        assertThat(map.size()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void destroy() {
+        release.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void testDelegates() {
+        passwordEncoder = new BoundedPasswordEncoder(new PlainPasswordEncoder(), 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        assertThat(passwordEncoder.encode("password")).isEqualTo("password");
+        assertThat(passwordEncoder.matches("password", "password")).isTrue();
+        assertThat(passwordEncoder.matches("password", "other")).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("password")).isFalse();
+        assertThatThrownBy(() -> passwordEncoder.matches("password", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRejectsWhenTheQueueIsFull() throws Exception {
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("password", "password"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.matches("password", "password"));
+        while (meterRegistry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.matches("password", "password")).isInstanceOf(PasswordHashingRejectedException.class);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testRejectsWhenItTimesOut() {
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThatThrownBy(() -> passwordEncoder.encode("password")).isInstanceOf(PasswordHashingRejectedException.class);
+    }
+
+    private static class PlainPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("No encoded password");
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    private class BlockingPasswordEncoder extends PlainPasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return super.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return super.matches(rawPassword, encodedPassword);
+        }
+
+        private void block() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LoginClassifier} utility class.
+ */
+class LoginClassifierUnitTest {
+
+    @Test
+    void testClassifyEmails() {
+        assertThat(LoginClassifier.classify("admin@localhost")).isEqualTo(LoginClassifier.Kind.EMAIL);
+        assertThat(LoginClassifier.classify("John.Doe+tag@Example.COM")).isEqualTo(LoginClassifier.Kind.EMAIL);
+        assertThat(LoginClassifier.classify("o'brien@example.com")).isEqualTo(LoginClassifier.Kind.EMAIL);
+        assertThat(LoginClassifier.classify("jérôme@example.com")).isEqualTo(LoginClassifier.Kind.EMAIL);
+        assertThat(LoginClassifier.isEmail("admin@localhost")).isTrue();
+    }
+
+    @Test
+    void testClassifyLogins() {
+        assertThat(LoginClassifier.classify("admin")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.classify("Test_User-1.2")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        // valid logins, but not emails
+        assertThat(LoginClassifier.classify("@admin")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.classify("admin@")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.classify("admin@@localhost")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.classify("admin@local..host")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.classify("admin@localhost.")).isEqualTo(LoginClassifier.Kind.LOGIN);
+        assertThat(LoginClassifier.isEmail("admin")).isFalse();
+    }
+
+    @Test
+    void testClassifyInvalidValues() {
+        assertThat(LoginClassifier.classify(null)).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.classify("")).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.classify("john doe")).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.classify("john doe@example.com")).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.classify("john@exa_mple.com")).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.classify("a".repeat(LoginClassifier.MAXIMUM_LENGTH + 1))).isEqualTo(LoginClassifier.Kind.INVALID);
+        assertThat(LoginClassifier.isEmail(null)).isFalse();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test class for the {@link PublicRoutes} utility class.
+ */
+class PublicRoutesUnitTest {
+
+    @Test
+    void testStaticResourcesArePublic() {
+        assertThat(PublicRoutes.isPublicPath("/main.4f2a1c.js")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/styles.css")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/favicon.ico")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/content/images/logo.png")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/i18n/en.json")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/app/home/home.component.html")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/swagger-ui/index.html")).isTrue();
+    }
+
+    @Test
+    void testMonitoringEndpointsArePublic() {
+        assertThat(PublicRoutes.isPublicPath("/management/prometheus")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/management/jwks")).isTrue();
+        assertThat(PublicRoutes.isPublicPath("/management/info")).isTrue();
+    }
+
+    @Test
+    void testOtherRoutesAreNotPublic() {
+        assertThat(PublicRoutes.isPublicPath("/api/account")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/api/books.js")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/app/config.json")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/management/health")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/management/prometheus/extra")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/management/metrics")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("/content")).isFalse();
+        assertThat(PublicRoutes.isPublicPath("")).isFalse();
+    }
+
+    @Test
+    void testRequestsServedByOtherServletsAreNotPublic() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/h2-console/content/style.css");
+        request.setServletPath("/h2-console");
+        request.setPathInfo("/content/style.css");
+        assertThat(PublicRoutes.isPublic(request)).isFalse();
+
+        request = new MockHttpServletRequest("GET", "/content/style.css");
+        request.setServletPath("/content/style.css");
+        assertThat(PublicRoutes.isPublic(request)).isTrue();
+    }
+}
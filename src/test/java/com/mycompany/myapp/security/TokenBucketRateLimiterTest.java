@@ -0,0 +1,88 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long TEN_SECONDS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    public void setup() {
+        // 6 per minute: a token every 10 seconds
+        limiter = new TokenBucketRateLimiter(6, Duration.ofMinutes(1), 3, now::get);
+    }
+
+    @Test
+    void testBurstUpToCapacityThenWait() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("key")).isEqualTo(TEN_SECONDS);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(limiter.tryAcquire("key")).isEqualTo(TimeUnit.SECONDS.toNanos(6));
+    }
+
+    @Test
+    void testTokensAreRefilled() {
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        now.addAndGet(TEN_SECONDS);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void testKeysHaveTheirOwnBucket() {
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        assertThat(limiter.tryAcquire("key")).isPositive();
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void testFullBucketsAreEvictedFirst() {
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire("busy");
+        }
+        limiter.tryAcquire("idle1");
+        limiter.tryAcquire("idle2");
+        now.addAndGet(TEN_SECONDS);
+
+        limiter.tryAcquire("new");
+
+        assertThat(limiter.size()).isEqualTo(2);
+        // one token refilled since, not a new full bucket
+        assertThat(limiter.tryAcquire("busy")).isZero();
+        assertThat(limiter.tryAcquire("busy")).isPositive();
+    }
+
+    @Test
+    void testThrottledBucketsAreNotEvictedByNewKeys() {
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire("victim");
+        }
+        limiter.tryAcquire("attacker1");
+        limiter.tryAcquire("attacker2");
+
+        assertThat(limiter.tryAcquire("attacker3")).isEqualTo(TEN_SECONDS);
+
+        assertThat(limiter.size()).isEqualTo(3);
+        assertThat(limiter.tryAcquire("victim")).isPositive();
+    }
+}
@@ -0,0 +1,80 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.Benchmarks;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Measures {@link DomainUserDetailsService#loadUserByUsername(String)} against a stubbed repository, which returns the
+ * same user for any login or email, and compares the classification of what the user typed by building an
+ * {@code EmailValidator}, as done before {@link LoginClassifier}, with {@link LoginClassifier#classify(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDetailsLookupBenchmark {
+
+    @Param({ "admin", "Admin", "admin@localhost", "Admin@LocalHost" })
+    public String username;
+
+    private DomainUserDetailsService domainUserDetailsService;
+
+    @Setup
+    public void setup() {
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        User user = new User();
+        user.setLogin("admin");
+        user.setEmail("admin@localhost");
+        user.setPassword("$2a$10$gSAhZrxMllrbgj/kkK9UceBPpChGWJA7SYIb1Mqo.n5aNLq1/oRrC");
+        user.setActivated(true);
+        user.setAuthorities(Set.of(authority));
+        Optional<User> found = Optional.of(user);
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(),
+            new Class<?>[] { UserRepository.class },
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("findOneWithAuthoritiesBy")) {
+                    return found;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+        domainUserDetailsService = new DomainUserDetailsService(userRepository);
+    }
+
+    @Benchmark
+    public boolean emailValidator() {
+        return new EmailValidator().isValid(username, null);
+    }
+
+    @Benchmark
+    public LoginClassifier.Kind classifier() {
+        return LoginClassifier.classify(username);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return domainUserDetailsService.loadUserByUsername(username);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(UserDetailsLookupBenchmark.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.Benchmarks;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the cost of the {@link JWTFilter} for each type of request, from the static resources and the Prometheus
+ * scrapes, which it passes through, to the API calls it authenticates with the verified token cache. Track it to spot
+ * regressions of the security chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JWTFilterBenchmark {
+
+    private static final FilterChain END_OF_CHAIN = (request, response) -> {};
+
+    /**
+     * The path of the request, and whether it carries a token.
+     */
+    @Param(
+        {
+            "/content/images/logo.png",
+            "/main.js:token",
+            "/management/prometheus",
+            "/management/prometheus:token",
+            "/api/account",
+            "/api/account:token",
+        }
+    )
+    public String request;
+
+    private JWTFilter jwtFilter;
+
+    private MockHttpServletRequest servletRequest;
+
+    private MockHttpServletResponse servletResponse;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            new TokenRevocationList(applicationProperties)
+        );
+        jwtFilter = new JWTFilter(tokenProvider);
+
+        String[] parts = request.split(":");
+        servletRequest = new MockHttpServletRequest("GET", parts[0]);
+        servletRequest.setServletPath(parts[0]);
+        if (parts.length > 1) {
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                "user",
+                "",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            );
+            servletRequest.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + tokenProvider.createToken(authentication, false));
+        }
+        servletResponse = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws IOException, ServletException {
+        jwtFilter.doFilter(servletRequest, servletResponse, END_OF_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // as done by the FilterChainProxy at the end of each request
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(JWTFilterBenchmark.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.Benchmarks;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the cost of signing and verifying a JWT with HS512 and with ES256, without the verified token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtSigningBenchmark {
+
+    @Param({ "HS512", "ES256" })
+    public String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getTokenCache().setMaximumSize(0);
+        applicationProperties.getSecurity().getSigning().setAlgorithm(algorithm);
+        if (SignatureAlgorithm.ES256.getValue().equals(algorithm)) {
+            KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+            ApplicationProperties.Security.Signing.Key key = new ApplicationProperties.Security.Signing.Key();
+            key.setId("benchmark");
+            key.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+            key.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+            applicationProperties.getSecurity().getSigning().setActiveKeyId("benchmark");
+            applicationProperties.getSecurity().getSigning().setKeys(List.of(key));
+        }
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                applicationProperties,
+                new SecurityMetersService(new SimpleMeterRegistry()),
+                new TokenRevocationList(applicationProperties)
+            );
+
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "catalog.manager@example.com",
+                "",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            );
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public TokenValidationResult verify() {
+        return tokenProvider.authenticateToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(JwtSigningBenchmark.class);
+    }
+}
@@ -2,8 +2,12 @@ package com.mycompany.myapp.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.management.SecurityMetersService;
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -11,6 +15,8 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
+import java.time.Instant;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +32,7 @@ class TokenProviderTest {
     private static final long ONE_MINUTE = 60000;
 
     private Key key;
+    private TokenRevocationList tokenRevocationList;
     private TokenProvider tokenProvider;
 
     @BeforeEach
@@ -36,7 +43,9 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        tokenRevocationList = new TokenRevocationList(applicationProperties);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, securityMetersService, tokenRevocationList);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +97,120 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateTokenReturnsAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        TokenValidationResult result = tokenProvider.authenticateToken(token);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getStatus()).isEqualTo(TokenValidationResult.Status.VALID);
+        assertThat(result.getAuthentication().getName()).isEqualTo("anonymous");
+        assertThat(result.getAuthentication().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testAuthenticateTokenClassifiesFailures() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticateToken(expiredToken).getStatus()).isEqualTo(TokenValidationResult.Status.EXPIRED);
+        assertThat(tokenProvider.authenticateToken(createUnsupportedToken()).getStatus())
+            .isEqualTo(TokenValidationResult.Status.UNSUPPORTED);
+        assertThat(tokenProvider.authenticateToken(token.substring(1)).getStatus()).isEqualTo(TokenValidationResult.Status.MALFORMED);
+        assertThat(tokenProvider.authenticateToken(createTokenWithDifferentSignature()).getStatus())
+            .isEqualTo(TokenValidationResult.Status.INVALID_SIGNATURE);
+        TokenValidationResult invalid = tokenProvider.authenticateToken("");
+        assertThat(invalid.getStatus()).isEqualTo(TokenValidationResult.Status.INVALID);
+        assertThat(invalid.isValid()).isFalse();
+        assertThat(invalid.getAuthentication()).isNull();
+    }
+
+    @Test
+    void testEs256TokenIsSignedWithTheActiveKey() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        TokenProvider es256TokenProvider = createEs256TokenProvider("key-1", signingKey("key-1", keyPair, true));
+
+        String token = es256TokenProvider.createToken(createAuthentication(), false);
+
+        Jws<Claims> jws = Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build().parseClaimsJws(token);
+        assertThat(jws.getHeader().getKeyId()).isEqualTo("key-1");
+        assertThat(jws.getHeader().getAlgorithm()).isEqualTo("ES256");
+        assertThat(es256TokenProvider.authenticateToken(token).isValid()).isTrue();
+        assertThat(es256TokenProvider.getPublicKeys())
+            .singleElement()
+            .satisfies(jwk -> {
+                assertThat(jwk).containsEntry("kid", "key-1").containsEntry("kty", "EC").containsEntry("crv", "P-256");
+                assertThat((String) jwk.get("x")).hasSize(43);
+                assertThat((String) jwk.get("y")).hasSize(43);
+            });
+        assertThat(tokenProvider.getPublicKeys()).isEmpty();
+    }
+
+    @Test
+    void testEs256TokenIsVerifiedAfterKeyRotation() {
+        KeyPair oldKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        TokenProvider oldTokenProvider = createEs256TokenProvider("key-1", signingKey("key-1", oldKeyPair, true));
+        TokenProvider newTokenProvider = createEs256TokenProvider(
+            "key-2",
+            signingKey("key-1", oldKeyPair, false),
+            signingKey("key-2", newKeyPair, true)
+        );
+
+        String oldToken = oldTokenProvider.createToken(createAuthentication(), false);
+        String newToken = newTokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(newTokenProvider.authenticateToken(oldToken).isValid()).isTrue();
+        assertThat(newTokenProvider.authenticateToken(newToken).isValid()).isTrue();
+        assertThat(oldTokenProvider.authenticateToken(newToken).getStatus()).isEqualTo(TokenValidationResult.Status.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void testEs256RejectsTokensSignedWithOtherKeys() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        TokenProvider es256TokenProvider = createEs256TokenProvider("key-1", signingKey("key-1", keyPair, true));
+        String hmacTokenWithKeyId = Jwts
+            .builder()
+            .setHeaderParam(JwsHeader.KEY_ID, "key-1")
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ANONYMOUS)
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(es256TokenProvider.authenticateToken(hmacTokenWithKeyId).getStatus())
+            .isEqualTo(TokenValidationResult.Status.INVALID_SIGNATURE);
+        assertThat(tokenProvider.authenticateToken(es256TokenProvider.createToken(createAuthentication(), false)).getStatus())
+            .isEqualTo(TokenValidationResult.Status.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void testRevokedTokenIsRejected() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+        assertThat(tokenProvider.authenticateToken(token).isValid()).isTrue();
+
+        tokenRevocationList.revoke(authentication.getName(), Instant.now());
+
+        assertThat(tokenProvider.authenticateToken(token).getStatus()).isEqualTo(TokenValidationResult.Status.REVOKED);
+        assertThat(tokenProvider.getAuthentication(token)).isNull();
+    }
+
+    @Test
+    void testTokenIssuedAfterRevocationIsAccepted() {
+        Authentication authentication = createAuthentication();
+        tokenRevocationList.revoke(authentication.getName(), Instant.now().minusSeconds(5));
+
+        String token = tokenProvider.createToken(authentication, false);
+
+        assertThat(tokenProvider.authenticateToken(token).isValid()).isTrue();
+        assertThat(tokenProvider.authenticateToken(token).isValid()).isTrue();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +219,13 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            securityMetersService,
+            new TokenRevocationList(applicationProperties)
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,12 +239,41 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            securityMetersService,
+            new TokenRevocationList(applicationProperties)
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private TokenProvider createEs256TokenProvider(String activeKeyId, ApplicationProperties.Security.Signing.Key... keys) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getSigning().setAlgorithm("ES256");
+        applicationProperties.getSecurity().getSigning().setActiveKeyId(activeKeyId);
+        applicationProperties.getSecurity().getSigning().setKeys(List.of(keys));
+        return new TokenProvider(
+            new JHipsterProperties(),
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            new TokenRevocationList(applicationProperties)
+        );
+    }
+
+    private ApplicationProperties.Security.Signing.Key signingKey(String id, KeyPair keyPair, boolean withPrivateKey) {
+        ApplicationProperties.Security.Signing.Key signingKey = new ApplicationProperties.Security.Signing.Key();
+        signingKey.setId(id);
+        signingKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            signingKey.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        }
+        return signingKey;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
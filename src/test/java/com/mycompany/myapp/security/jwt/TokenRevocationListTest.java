@@ -0,0 +1,65 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTest {
+
+    private static final Instant REVOKED_AT = Instant.parse("2026-10-18T12:00:00.250Z");
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    public void setup() {
+        tokenRevocationList = new TokenRevocationList(new ApplicationProperties());
+    }
+
+    @Test
+    void testSubjectWithoutRevocationIsNotRevoked() {
+        assertThat(tokenRevocationList.mightBeRevoked("user")).isFalse();
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(REVOKED_AT))).isFalse();
+    }
+
+    @Test
+    void testTokensIssuedBeforeTheRevocationAreRevoked() {
+        tokenRevocationList.revoke("user", REVOKED_AT);
+
+        assertThat(tokenRevocationList.mightBeRevoked("user")).isTrue();
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(REVOKED_AT.minusSeconds(60)))).isTrue();
+        assertThat(tokenRevocationList.isRevoked("user", null)).isTrue();
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(REVOKED_AT.plusSeconds(1)))).isFalse();
+        assertThat(tokenRevocationList.isRevoked("other", Date.from(REVOKED_AT.minusSeconds(60)))).isFalse();
+    }
+
+    @Test
+    void testTokensIssuedInTheSecondOfTheRevocationAreRevoked() {
+        tokenRevocationList.revoke("user", REVOKED_AT);
+
+        // the issue time of a token is truncated to the second
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(Instant.parse("2026-10-18T12:00:00Z")))).isTrue();
+    }
+
+    @Test
+    void testLatestRevocationWins() {
+        tokenRevocationList.revoke("user", REVOKED_AT);
+        tokenRevocationList.revoke("user", REVOKED_AT.minusSeconds(3600));
+
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(REVOKED_AT.minusSeconds(60)))).isTrue();
+    }
+
+    @Test
+    void testReplaceAll() {
+        tokenRevocationList.revoke("user", REVOKED_AT);
+
+        tokenRevocationList.replaceAll(Map.of("other", REVOKED_AT));
+
+        assertThat(tokenRevocationList.isRevoked("user", Date.from(REVOKED_AT.minusSeconds(60)))).isFalse();
+        assertThat(tokenRevocationList.isRevoked("other", Date.from(REVOKED_AT.minusSeconds(60)))).isTrue();
+    }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.TokenRevocation;
+import com.mycompany.myapp.repository.TokenRevocationRepository;
+import java.time.Instant;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integrations tests for {@link TokenRevocationService}.
+ */
+@Transactional
+@IntegrationTest
+class TokenRevocationServiceIT {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Test
+    void testRevokeIsRecordedAndAppliedLocally() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        tokenRevocationService.revoke("token-revocation-local");
+
+        assertThat(tokenRevocationRepository.findAll()).extracting(TokenRevocation::getSubject).contains("token-revocation-local");
+        assertThat(tokenRevocationList.isRevoked("token-revocation-local", issuedAt)).isTrue();
+    }
+
+    @Test
+    void testSyncLoadsTheRevocationsOfOtherNodes() {
+        Instant now = Instant.now();
+        TokenRevocation tokenRevocation = new TokenRevocation();
+        tokenRevocation.setSubject("token-revocation-peer");
+        tokenRevocation.setRevokedAt(now);
+        tokenRevocation.setExpiresAt(now.plusSeconds(3600));
+        tokenRevocationRepository.saveAndFlush(tokenRevocation);
+
+        tokenRevocationService.sync();
+
+        assertThat(tokenRevocationList.isRevoked("token-revocation-peer", Date.from(now.minusSeconds(60)))).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.Benchmarks;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the validation of a JWT by {@link TokenProvider#validateToken(String)} followed by
+ * {@link TokenProvider#getAuthentication(String)}, with {@link TokenProvider#authenticateToken(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenValidationBenchmark {
+
+    /**
+     * Number of authorities of the token: a regular user, and a user with many roles (a token of about 1 KB).
+     */
+    @Param({ "2", "30" })
+    public int authorities;
+
+    /**
+     * Size of the verified token cache, {@code 0} to parse the token on each validation.
+     */
+    @Param({ "0", "10000" })
+    public int tokenCacheSize;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getTokenCache().setMaximumSize(tokenCacheSize);
+        tokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                applicationProperties,
+                new SecurityMetersService(new SimpleMeterRegistry()),
+                new TokenRevocationList(applicationProperties)
+            );
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        grantedAuthorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        for (int i = 1; i < authorities; i++) {
+            grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_CATALOG_DEPARTMENT_" + i));
+        }
+        Authentication authentication = new UsernamePasswordAuthenticationToken("catalog.manager@example.com", "", grantedAuthorities);
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication validateThenGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Authentication authenticateToken() {
+        return tokenProvider.authenticateToken(token).getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(TokenValidationBenchmark.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+class VerifiedTokenCacheTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new VerifiedTokenCache(10, now::get);
+    }
+
+    @Test
+    void testEntryIsDroppedWhenTheTokenExpires() {
+        User principal = new User("user", "", List.of());
+        cache.put("digest", principal, null, new Date(now.get() + ONE_MINUTE));
+
+        assertThat(cache.get("digest")).isSameAs(principal);
+
+        now.addAndGet(ONE_MINUTE);
+
+        assertThat(cache.get("digest")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testIssueTimeIsCached() {
+        Date issuedAt = new Date(now.get());
+        cache.put("digest", new User("user", "", List.of()), issuedAt, new Date(now.get() + ONE_MINUTE));
+
+        assertThat(cache.getIssuedAt("digest")).isEqualTo(issuedAt);
+        assertThat(cache.getIssuedAt("unknown")).isNull();
+    }
+
+    @Test
+    void testTokenWithoutExpirationIsNotCached() {
+        cache.put("digest", new User("user", "", List.of()), null, null);
+
+        assertThat(cache.get("digest")).isNull();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        for (int i = 0; i < 25; i++) {
+            cache.put("digest" + i, new User("user" + i, "", List.of()), null, new Date(now.get() + ONE_MINUTE));
+        }
+
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.get("digest0")).isNotNull();
+        assertThat(cache.get("digest24")).isNull();
+    }
+
+    @Test
+    void testDisabledCacheKeepsNothing() {
+        cache = new VerifiedTokenCache(0, now::get);
+        cache.put("digest", new User("user", "", List.of()), null, new Date(now.get() + ONE_MINUTE));
+
+        assertThat(cache.get("digest")).isNull();
+    }
+
+    @Test
+    void testDigestDoesNotContainTheToken() {
+        assertThat(VerifiedTokenCache.digest("header.payload.signature")).doesNotContain("payload").hasSize(43);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationTest {
+
+    @Test
+    void testEncodeDecodeEntities() {
+        CacheInvalidation invalidation = CacheInvalidation.ofEntities("node", "com.mycompany.myapp.domain.Book", List.of(1L, 2L));
+        CacheInvalidation region = CacheInvalidation.ofEntityRegion("node", "com.mycompany.myapp.domain.Book");
+
+        CacheInvalidation decoded = CacheInvalidation.decode(invalidation.encode());
+
+        assertThat(decoded).isEqualTo(invalidation);
+        assertThat(decoded.getKind()).isEqualTo(CacheInvalidation.Kind.ENTITIES);
+        assertThat(decoded.getKeys()).containsExactly("1", "2");
+        assertThat(decoded.isEntityRegion()).isFalse();
+        assertThat(CacheInvalidation.decode(region.encode()).isEntityRegion()).isTrue();
+    }
+
+    @Test
+    void testEncodeDecodeKeyContainingTheSeparator() {
+        CacheInvalidation invalidation = CacheInvalidation.ofKey("node", "usersByLogin", "a|b");
+
+        assertThat(CacheInvalidation.decode(invalidation.encode()).getKey()).isEqualTo("a|b");
+    }
+
+    @Test
+    void testEncodeDecodeKeys() {
+        CacheInvalidation invalidation = CacheInvalidation.ofKeys("node", "booksById", List.of("1", "2", "3"));
+
+        CacheInvalidation decoded = CacheInvalidation.decode(invalidation.encode());
+
+        assertThat(decoded).isEqualTo(invalidation);
+        assertThat(decoded.getKind()).isEqualTo(CacheInvalidation.Kind.KEYS);
+        assertThat(decoded.getKeys()).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void testKeysCannotContainTheKeysSeparator() {
+        assertThatThrownBy(() -> CacheInvalidation.ofKeys("node", "booksById", List.of("1", "a,b")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheInvalidation.ofKeys("node", "booksById", List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testEncodeDecodeAll() {
+        CacheInvalidation invalidation = CacheInvalidation.ofAll("node");
+
+        assertThat(CacheInvalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+
+    @Test
+    void testDecodeInvalidPayload() {
+        assertThatThrownBy(() -> CacheInvalidation.decode("node|ENTITIES")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheInvalidation.decode("node|UNKNOWN|name|key")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheInvalidation.decode("node|KEY||key")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheInvalidation.decode("|ALL||")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor("title", Sort.Direction.DESC, 42L, "Gödel, Escher, Bach");
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void testEncodeDecodeNullValue() {
+        KeysetCursor cursor = new KeysetCursor("price", Sort.Direction.ASC, 7L, null);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getValue()).isNull();
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void testEncodeDecodeEmptyValue() {
+        KeysetCursor cursor = new KeysetCursor("title", Sort.Direction.ASC, 7L, "");
+
+        assertThat(KeysetCursor.decode(cursor.encode()).getValue()).isEmpty();
+    }
+
+    @Test
+    void testDecodeInvalidToken() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("aWQsQVNDLGFiYyx-")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Integration tests for {@link MailOutboxDispatcher}.
+ */
+@IntegrationTest
+class MailOutboxDispatcherIT {
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @BeforeEach
+    public void setup() {
+        outboxMailRepository.deleteAll();
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @Test
+    void testDispatchSendsDueEmailsInOneBatch() {
+        double sent = meterRegistry.get(MailOutboxDispatcher.SENT_METER_NAME).counter().count();
+        saveMail("first@example.com", 0, Instant.now().minusSeconds(1));
+        saveMail("second@example.com", 0, Instant.now().minusSeconds(1));
+        OutboxMail later = saveMail("later@example.com", 1, Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertThat(mailOutboxDispatcher.dispatch()).isEqualTo(2);
+
+        verify(javaMailSender).send(any(MimeMessage.class), any(MimeMessage.class));
+        assertThat(outboxMailRepository.findAll()).containsExactly(later);
+        assertThat(meterRegistry.get(MailOutboxDispatcher.SENT_METER_NAME).counter().count()).isEqualTo(sent + 2);
+        assertThat(meterRegistry.get(MailOutboxDispatcher.BACKLOG_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testDispatchRetriesTheFailedEmails() {
+        saveMail("sent@example.com", 0, Instant.now().minusSeconds(1));
+        OutboxMail rejected = saveMail("rejected@example.com", 0, Instant.now());
+        doAnswer(invocation -> {
+                MimeMessage rejectedMessage = invocation.getArgument(1);
+                throw new MailSendException(Map.of(rejectedMessage, new MessagingException("Mailbox unavailable")));
+            })
+            .when(javaMailSender)
+            .send(any(MimeMessage[].class));
+
+        assertThat(mailOutboxDispatcher.dispatch()).isEqualTo(1);
+
+        assertThat(outboxMailRepository.findAll())
+            .singleElement()
+            .satisfies(mail -> {
+                assertThat(mail.getId()).isEqualTo(rejected.getId());
+                assertThat(mail.getAttempts()).isEqualTo(1);
+                assertThat(mail.getNextAttemptAt()).isAfter(Instant.now());
+                assertThat(mail.getLastError()).contains("Mailbox unavailable");
+            });
+    }
+
+    @Test
+    void testDispatchSendsTheLeasedEmailsOutsideOfATransaction() {
+        Instant now = Instant.now();
+        saveMail("leased@example.com", 0, now.minusSeconds(1));
+        doAnswer(invocation -> {
+                assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+                assertThat(outboxMailRepository.findAll())
+                    .singleElement()
+                    .satisfies(mail -> assertThat(mail.getNextAttemptAt()).isAfterOrEqualTo(now.plus(outbox().getLease())));
+                return null;
+            })
+            .when(javaMailSender)
+            .send(any(MimeMessage[].class));
+
+        assertThat(mailOutboxDispatcher.dispatch()).isEqualTo(1);
+
+        assertThat(outboxMailRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void testDispatchAbandonsTheEmailsAfterTheLastAttempt() {
+        double abandoned = meterRegistry.get(MailOutboxDispatcher.FAILED_METER_NAME).tag("outcome", "abandoned").counter().count();
+        int maxAttempts = applicationProperties.getMail().getOutbox().getMaxAttempts();
+        saveMail("rejected@example.com", maxAttempts - 1, Instant.now().minusSeconds(1));
+        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage[].class));
+
+        assertThat(mailOutboxDispatcher.dispatch()).isZero();
+
+        assertThat(outboxMailRepository.findAll())
+            .singleElement()
+            .satisfies(mail -> {
+                assertThat(mail.getAttempts()).isEqualTo(maxAttempts);
+                assertThat(mail.getNextAttemptAt()).isNull();
+            });
+        assertThat(meterRegistry.get(MailOutboxDispatcher.FAILED_METER_NAME).tag("outcome", "abandoned").counter().count())
+            .isEqualTo(abandoned + 1);
+        assertThat(meterRegistry.get(MailOutboxDispatcher.BACKLOG_METER_NAME).gauge().value()).isZero();
+        assertThat(meterRegistry.get(MailOutboxDispatcher.ABANDONED_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemoveAbandonedEmailsAfterTheRetention() {
+        int maxAttempts = outbox().getMaxAttempts();
+        Instant expired = Instant.now().minus(outbox().getAbandonedRetention()).minusSeconds(60);
+        saveMail("expired@example.com", maxAttempts, null, expired);
+        OutboxMail abandoned = saveMail("abandoned@example.com", maxAttempts, null);
+        OutboxMail due = saveMail("due@example.com", maxAttempts - 1, Instant.now(), expired);
+
+        mailOutboxDispatcher.removeAbandonedEmails();
+
+        assertThat(outboxMailRepository.findAll()).extracting(OutboxMail::getId).containsExactlyInAnyOrder(abandoned.getId(), due.getId());
+        assertThat(meterRegistry.get(MailOutboxDispatcher.ABANDONED_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheMaximum() {
+        ApplicationProperties.Mail.Outbox outbox = outbox();
+        assertThat(mailOutboxDispatcher.backoff(1)).isEqualTo(outbox.getInitialBackoff());
+        assertThat(mailOutboxDispatcher.backoff(3)).isEqualTo(outbox.getInitialBackoff().multipliedBy(4));
+        assertThat(mailOutboxDispatcher.backoff(Integer.MAX_VALUE)).isEqualTo(outbox.getMaxBackoff());
+    }
+
+    private ApplicationProperties.Mail.Outbox outbox() {
+        return applicationProperties.getMail().getOutbox();
+    }
+
+    private OutboxMail saveMail(String recipient, int attempts, Instant nextAttemptAt) {
+        return saveMail(recipient, attempts, nextAttemptAt, Instant.now().minusSeconds(60));
+    }
+
+    private OutboxMail saveMail(String recipient, int attempts, Instant nextAttemptAt, Instant createdAt) {
+        OutboxMail mail = new OutboxMail();
+        mail.setRecipient(recipient);
+        mail.setSubject("testSubject");
+        mail.setContent("testContent");
+        mail.setAttempts(attempts);
+        mail.setCreatedAt(createdAt);
+        mail.setNextAttemptAt(nextAttemptAt);
+        return outboxMailRepository.saveAndFlush(mail);
+    }
+}
@@ -0,0 +1,131 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.Benchmarks;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.domain.User;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Measures the emails rendered per second from the templates of the application, in the three languages: rendered as
+ * {@code MailService} did before {@link MailTemplateRenderer}, with a new writer and a subject looked up for each
+ * email, then one by one and by batches with the {@link MailTemplateRenderer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MailRenderingBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String[] LANGUAGES = { "en", "fr", "pt-pt" };
+
+    private static final Map<String, String> TITLE_KEYS = Map.of(
+        "mail/activationEmail",
+        "email.activation.title",
+        "mail/passwordResetEmail",
+        "email.reset.title"
+    );
+
+    private static final String BASE_URL = "http://127.0.0.1:8080";
+
+    @Param({ "mail/activationEmail", "mail/passwordResetEmail" })
+    public String templateName;
+
+    private String titleKey;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private List<User> users;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        titleKey = TITLE_KEYS.get(templateName);
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl(BASE_URL);
+        mailTemplateRenderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, new ThymeleafProperties());
+        mailTemplateRenderer.warmUp();
+
+        users = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            User user = new User();
+            user.setLogin("user-" + i);
+            user.setEmail("user-" + i + "@example.com");
+            user.setLangKey(LANGUAGES[i % LANGUAGES.length]);
+            user.setActivationKey(RandomUtil.generateActivationKey());
+            user.setResetKey(RandomUtil.generateResetKey());
+            users.add(user);
+        }
+    }
+
+    private User nextUser() {
+        next = (next + 1) % BATCH_SIZE;
+        return users.get(next);
+    }
+
+    @Benchmark
+    public String processEachEmail() {
+        User user = nextUser();
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", BASE_URL);
+        String content = templateEngine.process(templateName, context);
+        return messageSource.getMessage(titleKey, null, locale) + content;
+    }
+
+    @Benchmark
+    public OutboxMail render() {
+        return mailTemplateRenderer.render(nextUser(), templateName, titleKey);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<OutboxMail> renderAll() {
+        return mailTemplateRenderer.renderAll(users, templateName, titleKey);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Benchmarks.run(MailRenderingBenchmark.class);
+    }
+}
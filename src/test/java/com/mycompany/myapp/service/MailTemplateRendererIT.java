@@ -0,0 +1,78 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.domain.User;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Test
+    void testRenderRendersEachUserInTheirLanguage() {
+        List<User> users = List.of(user("john", "en"), user("jean", "fr"), user("joao", "pt-pt"));
+
+        List<OutboxMail> mails = users
+            .stream()
+            .map(user -> mailTemplateRenderer.render(user, "mail/testEmail", "email.test.title"))
+            .collect(Collectors.toList());
+
+        assertThat(mails)
+            .extracting(OutboxMail::getRecipient)
+            .containsExactly("john@example.com", "jean@example.com", "joao@example.com");
+        assertThat(mails).allSatisfy(mail -> assertThat(mail.isHtml()).isTrue());
+        assertThat(mails).extracting(OutboxMail::getSubject).doesNotHaveDuplicates();
+        assertThat(mails.get(0).getSubject()).isEqualTo("test title");
+        assertThat(mails.get(0).getContent()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(mails.get(1).getContent()).contains(mails.get(1).getSubject()).contains("jean");
+    }
+
+    @Test
+    void testRenderAllRendersEachUserInTheirLanguage() {
+        User john = user("john", "en");
+        List<User> users = List.of(john, user("jean", "fr"), user("joao", "pt-pt"), john);
+
+        List<OutboxMail> mails = mailTemplateRenderer.renderAll(users, "mail/testEmail", "email.test.title");
+
+        assertThat(mails)
+            .extracting(OutboxMail::getRecipient)
+            .containsExactly("john@example.com", "jean@example.com", "joao@example.com", "john@example.com");
+        for (int i = 0; i < mails.size(); i++) {
+            OutboxMail rendered = mailTemplateRenderer.render(users.get(i), "mail/testEmail", "email.test.title");
+            assertThat(mails.get(i).getSubject()).isEqualTo(rendered.getSubject());
+            assertThat(mails.get(i).getContent()).isEqualTo(rendered.getContent());
+            assertThat(mails.get(i).isHtml()).isTrue();
+        }
+    }
+
+    @Test
+    void testRenderDoesNotKeepTheContentOfThePreviousEmail() {
+        User john = user("john", "en");
+        User longLogin = user("j".repeat(64 * 1024), "en");
+
+        String large = mailTemplateRenderer.render(longLogin, "mail/testEmail", "email.test.title").getContent();
+        String small = mailTemplateRenderer.render(john, "mail/testEmail", "email.test.title").getContent();
+
+        assertThat(large).hasSizeGreaterThan(64 * 1024);
+        assertThat(small).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+    }
+
+    private static User user(String login, String langKey) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey(langKey);
+        return user;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.repository.UserRepository;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link PostgresCacheInvalidationTransport}, run against the PostgreSQL test container.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "spring.profiles.active", matches = ".*testprod.*")
+@TestPropertySource(properties = "application.cache.invalidation.transport=postgres")
+class PostgresCacheInvalidationTransportIT {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    private PostgresCacheInvalidationTransport peer;
+
+    private final List<CacheInvalidation> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        peer =
+            new PostgresCacheInvalidationTransport(
+                dataSourceProperties.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build(),
+                jdbcTemplate,
+                new TransactionTemplate(transactionManager),
+                "cache_invalidation"
+            );
+        peer.subscribe(received::add);
+    }
+
+    @AfterEach
+    public void cleanup() throws InterruptedException {
+        peer.destroy();
+    }
+
+    @Test
+    void testEvictionIsReceivedByPeers() throws InterruptedException {
+        cacheInvalidationService.evict(UserRepository.USERS_BY_LOGIN_CACHE, "peer-login");
+
+        waitFor(() -> !received.isEmpty());
+        assertThat(received)
+            .extracting(CacheInvalidation::getKind, CacheInvalidation::getName, CacheInvalidation::getKey)
+            .containsExactly(tuple(CacheInvalidation.Kind.KEY, UserRepository.USERS_BY_LOGIN_CACHE, "peer-login"));
+    }
+
+    @Test
+    void testPeerEvictionIsApplied() throws InterruptedException {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.put("peer-login", "cached");
+
+        peer.publish(CacheInvalidation.ofKey("peer", UserRepository.USERS_BY_LOGIN_CACHE, "peer-login"));
+
+        waitFor(() -> cache.get("peer-login") == null);
+        assertThat(cache.get("peer-login")).isNull();
+    }
+
+    @Test
+    void testRolledBackEvictionIsNotSent() throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            peer.publish(CacheInvalidation.ofKey("peer", UserRepository.USERS_BY_LOGIN_CACHE, "rolled-back"));
+            status.setRollbackOnly();
+        });
+        peer.publish(CacheInvalidation.ofKey("peer", UserRepository.USERS_BY_LOGIN_CACHE, "committed"));
+
+        waitFor(() -> !received.isEmpty());
+        assertThat(received).extracting(CacheInvalidation::getKey).containsExactly("committed");
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
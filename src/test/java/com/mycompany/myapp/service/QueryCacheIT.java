@@ -0,0 +1,74 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.CacheMetrics;
+import com.mycompany.myapp.domain.Book;
+import com.mycompany.myapp.repository.BookRepository;
+import com.mycompany.myapp.service.criteria.BookCriteria;
+import com.mycompany.myapp.service.dto.BookDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the Hibernate query cache of the entity query services.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.query-cache.enabled=true")
+class QueryCacheIT {
+
+    private static final String TITLE = "query-cache";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookQueryService bookQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BookCriteria criteria;
+
+    private final Pageable page = PageRequest.of(0, 10);
+
+    @BeforeEach
+    public void init() {
+        criteria = new BookCriteria();
+        criteria.title().setEquals(TITLE);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        bookRepository.findAll().stream().filter(book -> TITLE.equals(book.getTitle())).forEach(bookRepository::delete);
+    }
+
+    @Test
+    void testCriteriaQueryIsCachedUntilTheTableIsModified() {
+        Book book = bookRepository.saveAndFlush(new Book().title(TITLE));
+
+        bookQueryService.findByCriteria(criteria, page);
+        double hits = queryCacheHits();
+        assertThat(bookQueryService.findByCriteria(criteria, page).getContent()).extracting(BookDTO::getId).containsExactly(book.getId());
+        assertThat(queryCacheHits()).isGreaterThan(hits);
+
+        bookRepository.saveAndFlush(new Book().title(TITLE));
+        assertThat(bookQueryService.findByCriteria(criteria, page).getContent()).hasSize(2);
+    }
+
+    private double queryCacheHits() {
+        return meterRegistry
+            .get(CacheMetrics.QUERY_CACHE_REQUESTS_METER_NAME)
+            .tag(CacheMetrics.REGION_DIMENSION, BookRepository.QUERY_CACHE_REGION)
+            .tag(CacheMetrics.RESULT_DIMENSION, "hit")
+            .functionCounter()
+            .count();
+    }
+}
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -141,6 +143,42 @@ class AuthorResourceIT {
             .andExpect(jsonPath("$.[*].birthDate").value(hasItem(DEFAULT_BIRTH_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllAuthorsWithoutCount() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+        authorRepository.saveAndFlush(createEntity(em));
+
+        // Get the first author only: there is a next page, but no total
+        restAuthorMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&size=1&count=none&name.equals=" + DEFAULT_NAME))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllAuthorsWithApproximateCount() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+
+        restAuthorMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&count=approximate&id.equals=" + author.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string("X-Total-Count-Approximate", "true"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(author.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllAuthorsWithInvalidCountMode() throws Exception {
+        restAuthorMockMvc.perform(get(ENTITY_API_URL + "?count=sometimes")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAuthor() throws Exception {
@@ -377,6 +415,64 @@ class AuthorResourceIT {
         restAuthorMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getAuthorIsNotModified() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+
+        String eTag = restAuthorMockMvc
+            .perform(get(ENTITY_API_URL_ID, author.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAuthorMockMvc
+            .perform(get(ENTITY_API_URL_ID, author.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void patchAuthorWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setId(author.getId());
+        authorDTO.setName(UPDATED_NAME);
+        restAuthorMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, author.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"stale\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(authorDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(authorRepository.findById(author.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void bulkAuthorsWithStaleVersion() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+
+        String operations =
+            "[{\"action\":\"update\",\"data\":{\"id\":" + author.getId() + ",\"version\":" + (author.getVersion() + 1) + "," +
+            "\"name\":\"" + UPDATED_NAME + "\"}}]";
+        restAuthorMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(operations))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(409))
+            .andExpect(jsonPath("$.[0].error").value("versionmismatch"));
+
+        assertThat(authorRepository.findById(author.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void putExistingAuthor() throws Exception {
@@ -408,6 +504,26 @@ class AuthorResourceIT {
         assertThat(testAuthor.getBirthDate()).isEqualTo(UPDATED_BIRTH_DATE);
     }
 
+    @Test
+    @Transactional
+    void putAuthorWithStaleVersion() throws Exception {
+        // Initialize the database
+        authorRepository.saveAndFlush(author);
+
+        AuthorDTO authorDTO = authorMapper.toDto(author);
+        authorDTO.setName(UPDATED_NAME);
+        authorDTO.setVersion(author.getVersion() + 1);
+        restAuthorMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, authorDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(authorDTO))
+            )
+            .andExpect(status().isConflict());
+
+        assertThat(authorRepository.findById(author.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void putNonExistingAuthor() throws Exception {
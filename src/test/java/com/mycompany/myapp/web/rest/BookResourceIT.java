@@ -2,7 +2,9 @@ package com.mycompany.myapp.web.rest;
 
 import static com.mycompany.myapp.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -14,6 +16,7 @@ import com.mycompany.myapp.repository.BookRepository;
 import com.mycompany.myapp.service.BookService;
 import com.mycompany.myapp.service.criteria.BookCriteria;
 import com.mycompany.myapp.service.dto.BookDTO;
+import com.mycompany.myapp.service.mapper.AuthorMapper;
 import com.mycompany.myapp.service.mapper.BookMapper;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -30,9 +33,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -76,9 +81,18 @@ class BookResourceIT {
     @Autowired
     private BookMapper bookMapper;
 
+    @Autowired
+    private AuthorMapper authorMapper;
+
     @Mock
     private BookService bookServiceMock;
 
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -179,6 +193,72 @@ class BookResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE))));
     }
 
+    @Test
+    @Transactional
+    void getAllBooksWithKeysetPagination() throws Exception {
+        // Initialize the database
+        Book first = bookRepository.saveAndFlush(createEntity(em).title("A"));
+        Book second = bookRepository.saveAndFlush(createEntity(em).title("B"));
+        Book third = bookRepository.saveAndFlush(createEntity(em).title(null));
+        String ids = first.getId() + "," + second.getId() + "," + third.getId();
+
+        // Get the first slice, which must link to the next one
+        String link = restBookMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&sort=title,asc&size=2&id.in=" + ids))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        assertThat(link).endsWith(">; rel=\"next\"");
+
+        // Follow the link: books without title come last
+        restBookMockMvc
+            .perform(get(link.substring(1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksWithoutCount() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&count=none&id.equals=" + book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(book.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksWithApproximateCount() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&count=approximate&id.equals=" + book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string("X-Total-Count-Approximate", "true"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(book.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksWithInvalidKeysetCursor() throws Exception {
+        restBookMockMvc.perform(get(ENTITY_API_URL + "?after=invalid!&sort=title,asc")).andExpect(status().isBadRequest());
+        restBookMockMvc.perform(get(ENTITY_API_URL + "?after=&sort=description,asc")).andExpect(status().isBadRequest());
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllBooksWithEagerRelationshipsIsEnabled() throws Exception {
         when(bookServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -615,6 +695,269 @@ class BookResourceIT {
         restBookMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getBookIsCachedUntilUpdated() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andExpect(jsonPath("$.title").value(DEFAULT_TITLE));
+
+        // A change which does not go through BookService is not seen
+        bookRepository.saveAndFlush(bookRepository.findById(book.getId()).get().title(UPDATED_TITLE));
+        restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andExpect(jsonPath("$.title").value(DEFAULT_TITLE));
+
+        BookDTO bookDTO = bookMapper.toDto(bookRepository.findById(book.getId()).get());
+        restBookMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(bookDTO))
+            )
+            .andExpect(status().isOk());
+        restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andExpect(jsonPath("$.title").value(UPDATED_TITLE));
+    }
+
+    @Test
+    @Transactional
+    void getBookIsEvictedWhenItsAuthorIsUpdated() throws Exception {
+        // Initialize the database
+        Author author = AuthorResourceIT.createEntity(em);
+        em.persist(author);
+        bookRepository.saveAndFlush(book.author(author));
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL_ID, book.getId()))
+            .andExpect(jsonPath("$.author.name").value(author.getName()));
+
+        // Disconnect from session so that the update is not directly saved in db
+        em.detach(author);
+        author.setName("Updated author");
+        restBookMockMvc
+            .perform(
+                put("/api/authors/{id}", author.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(authorMapper.toDto(author)))
+            )
+            .andExpect(status().isOk());
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL_ID, book.getId()))
+            .andExpect(jsonPath("$.author.name").value("Updated author"));
+    }
+
+    @Test
+    @Transactional
+    void getBookIsNotEvictedWhenAnotherAuthorIsUpdated() throws Exception {
+        // Initialize the database
+        Author author = AuthorResourceIT.createEntity(em);
+        em.persist(author);
+        Author otherAuthor = AuthorResourceIT.createEntity(em);
+        em.persist(otherAuthor);
+        bookRepository.saveAndFlush(book.author(author));
+        restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andExpect(status().isOk());
+
+        em.detach(otherAuthor);
+        otherAuthor.setName("Updated author");
+        restBookMockMvc
+            .perform(
+                put("/api/authors/{id}", otherAuthor.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(authorMapper.toDto(otherAuthor)))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(cacheManager.getCache(BookService.BOOKS_BY_ID_CACHE).get(book.getId().toString())).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    void getBookReturnsACopyOfTheCachedBook() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+        bookService.findOne(book.getId()).get().setTitle(UPDATED_TITLE);
+
+        assertThat(bookService.findOne(book.getId()).get().getTitle()).isEqualTo(DEFAULT_TITLE);
+        restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andExpect(jsonPath("$.title").value(DEFAULT_TITLE));
+    }
+
+    @Test
+    @Transactional
+    void exportBooksAsNdjson() throws Exception {
+        // Initialize the database
+        Author author = AuthorResourceIT.createEntity(em);
+        em.persist(author);
+        bookRepository.saveAndFlush(book.author(author));
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?id.equals=" + book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"id\":" + book.getId())))
+            .andExpect(content().string(containsString("\"title\":\"" + DEFAULT_TITLE + "\"")))
+            .andExpect(content().string(containsString("\"name\":\"" + author.getName() + "\"")));
+    }
+
+    @Test
+    @Transactional
+    void exportBooksAsCsv() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?format=csv&id.equals=" + book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("books.csv")))
+            .andExpect(content().string(containsString("id,version,title,description,publicationDate,price,authorId,authorName\n")))
+            .andExpect(content().string(containsString(book.getId() + ",0," + DEFAULT_TITLE + "," + DEFAULT_DESCRIPTION + ",1970-01-01,")));
+
+        restBookMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getBookIsNotModified() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        String eTag = restBookMockMvc
+            .perform(get(ENTITY_API_URL_ID, book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restBookMockMvc
+            .perform(get(ENTITY_API_URL_ID, book.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksIsNotModifiedUntilUpdated() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+        String url = ENTITY_API_URL + "?sort=id,desc&id.equals=" + book.getId();
+
+        String eTag = restBookMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restBookMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        bookRepository.saveAndFlush(bookRepository.findById(book.getId()).get().title(UPDATED_TITLE));
+        restBookMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(UPDATED_TITLE)));
+    }
+
+    @Test
+    @Transactional
+    void putBookWithIfMatch() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        String eTag = restBookMockMvc.perform(get(ENTITY_API_URL_ID, book.getId())).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        BookDTO bookDTO = bookMapper.toDto(bookRepository.findById(book.getId()).get());
+        bookDTO.setTitle(UPDATED_TITLE);
+        bookDTO.setVersion(null);
+        restBookMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(bookDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // The tag is now stale
+        restBookMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(bookDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Transactional
+    void putBookWithStaleVersion() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        BookDTO bookDTO = bookMapper.toDto(bookRepository.findById(book.getId()).get());
+        bookDTO.setVersion(bookDTO.getVersion() + 1);
+        restBookMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(bookDTO))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    void bulkBooksFromNdjson() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+        int databaseSizeBeforeBulk = bookRepository.findAll().size();
+
+        String operations = String.join(
+            "\n",
+            "{\"action\":\"create\",\"data\":{\"title\":\"" + DEFAULT_TITLE + "\"}}",
+            "{\"action\":\"update\",\"data\":{\"id\":" + book.getId() + ",\"title\":\"" + UPDATED_TITLE + "\"}}",
+            "{\"action\":\"delete\",\"data\":{\"id\":" + Long.MAX_VALUE + "}}"
+        );
+        restBookMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_NDJSON).content(operations))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value(200))
+            .andExpect(jsonPath("$.[1].version").value(1))
+            .andExpect(jsonPath("$.[2].status").value(404))
+            .andExpect(jsonPath("$.[2].error").value("idnotfound"));
+
+        assertThat(bookRepository.findAll()).hasSize(databaseSizeBeforeBulk + 1);
+        assertThat(bookRepository.findById(book.getId()).get().getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
+    @Test
+    @Transactional
+    void bulkBooksFromJsonArray() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+        int databaseSizeBeforeBulk = bookRepository.findAll().size();
+
+        String operations =
+            "[{\"action\":\"create\",\"data\":{\"id\":1,\"title\":\"" + DEFAULT_TITLE + "\"}}," +
+            "{\"action\":\"delete\",\"data\":{\"id\":" + book.getId() + "}}]";
+        restBookMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(operations))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(400))
+            .andExpect(jsonPath("$.[0].error").value("idexists"))
+            .andExpect(jsonPath("$.[1].status").value(204))
+            .andExpect(jsonPath("$.[1].id").value(book.getId().intValue()));
+
+        assertThat(bookRepository.findAll()).hasSize(databaseSizeBeforeBulk - 1);
+    }
+
     @Test
     @Transactional
     void putExistingBook() throws Exception {
@@ -1,18 +1,22 @@
 package com.mycompany.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.OutboxMail;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.OutboxMailRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.service.mapper.UserMapper;
 import com.mycompany.myapp.web.rest.vm.ManagedUserVM;
+import com.mycompany.myapp.web.rest.vm.ManagedUsersVM;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
@@ -65,6 +69,9 @@ class UserResourceIT {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -80,6 +87,8 @@ class UserResourceIT {
     public void setup() {
         cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
         cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+        cacheManager.getCache(UserRepository.UNKNOWN_LOGINS_CACHE).clear();
+        cacheManager.getCache(UserRepository.UNKNOWN_EMAILS_CACHE).clear();
     }
 
     /**
@@ -153,6 +162,51 @@ class UserResourceIT {
         });
     }
 
+    @Test
+    @Transactional
+    void createUsers() throws Exception {
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        ManagedUsersVM managedUsersVM = new ManagedUsersVM();
+        managedUsersVM.setUsers(List.of(adminUserDTO(DEFAULT_LOGIN, DEFAULT_EMAIL), adminUserDTO(UPDATED_LOGIN, UPDATED_EMAIL)));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(managedUsersVM))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.[*].login").value(contains(DEFAULT_LOGIN, UPDATED_LOGIN)));
+
+        // Validate the Users in the database, and their creation emails in the outbox
+        assertPersistedUsers(users -> {
+            assertThat(users).hasSize(databaseSizeBeforeCreate + 2);
+            assertThat(users).extracting(User::getEmail).contains(DEFAULT_EMAIL, UPDATED_EMAIL);
+        });
+        assertThat(outboxMailRepository.findAll()).extracting(OutboxMail::getRecipient).contains(DEFAULT_EMAIL, UPDATED_EMAIL);
+    }
+
+    @Test
+    @Transactional
+    void createUsersWithTheSameLogin() throws Exception {
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        ManagedUsersVM managedUsersVM = new ManagedUsersVM();
+        managedUsersVM.setUsers(List.of(adminUserDTO(DEFAULT_LOGIN, DEFAULT_EMAIL), adminUserDTO(DEFAULT_LOGIN, UPDATED_EMAIL)));
+
+        // A login cannot be used twice, so this API call must fail, and create none of the users
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(managedUsersVM))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
+    }
+
     @Test
     @Transactional
     void createUserWithExistingId() throws Exception {
@@ -576,6 +630,17 @@ class UserResourceIT {
         assertThat(authorityA).isEqualTo(authorityB).hasSameHashCodeAs(authorityB);
     }
 
+    private static AdminUserDTO adminUserDTO(String login, String email) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLastName(DEFAULT_LASTNAME);
+        userDTO.setEmail(email);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        return userDTO;
+    }
+
     private void assertPersistedUsers(Consumer<List<User>> userAssertion) {
         userAssertion.accept(userRepository.findAll());
     }